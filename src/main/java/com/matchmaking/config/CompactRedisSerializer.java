@@ -0,0 +1,339 @@
+package com.matchmaking.config;
+
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versioned binary codec for the hot queue records ({@link Player} and {@link Match}).
+ * Other values are delegated to the JSON serializer. Reads accept both formats, so the
+ * write format can be switched without migrating data that is already stored.
+ *
+ * Layout: magic byte, format version, type tag, then the fields in declaration order.
+ * Version 2 appends match teams after the match status. Records are written with the
+ * lowest version that holds them, so matches without teams stay readable by nodes that
+ * only know version 1.
+ * Integers are zigzag varints, strings are length-prefixed UTF-8 and instants are
+ * epoch seconds plus nanos.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte VERSION = 2;
+
+    private static final byte TYPE_PLAYER = 1;
+    private static final byte TYPE_MATCH = 2;
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final boolean writeCompact;
+
+    /**
+     * @param jsonSerializer serializer for other values and for records written as JSON
+     * @param writeCompact   whether players and matches are written in the binary format
+     */
+    public CompactRedisSerializer(RedisSerializer<Object> jsonSerializer, boolean writeCompact) {
+        this.jsonSerializer = jsonSerializer;
+        this.writeCompact = writeCompact;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (writeCompact && value instanceof Player player) {
+            Writer writer = new Writer(64);
+            writer.header(TYPE_PLAYER, 1);
+            writePlayer(writer, player);
+            return writer.toByteArray();
+        }
+        if (writeCompact && value instanceof Match match) {
+            Writer writer = new Writer(64 + 48 * sizeOf(match.getPlayers()));
+            writer.header(TYPE_MATCH, match.getTeams() == null ? 1 : VERSION);
+            writeMatch(writer, match);
+            return writer.toByteArray();
+        }
+        return jsonSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return jsonSerializer.deserialize(bytes);
+        }
+
+        Reader reader = new Reader(bytes);
+        reader.readByte();
+        int version = reader.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new SerializationException("Unsupported compact record version " + version);
+        }
+
+        byte type = reader.readByte();
+        return switch (type) {
+            case TYPE_PLAYER -> readPlayer(reader);
+            case TYPE_MATCH -> readMatch(reader, version);
+            default -> throw new SerializationException("Unknown compact record type " + type);
+        };
+    }
+
+    private static void writePlayer(Writer writer, Player player) {
+        writer.writeString(player.getPlayerId());
+        writer.writeString(player.getUsername());
+        writer.writeInt(player.getSkillRating());
+        writer.writeInt(player.getLatency());
+        writer.writeString(player.getRegion());
+        writer.writeInstant(player.getQueuedAt());
+        writer.writeEnum(player.getStatus());
+    }
+
+    private static Player readPlayer(Reader reader) {
+        return Player.builder()
+            .playerId(reader.readString())
+            .username(reader.readString())
+            .skillRating(reader.readInt())
+            .latency(reader.readInt())
+            .region(reader.readString())
+            .queuedAt(reader.readInstant())
+            .status(reader.readEnum(Player.PlayerStatus.values()))
+            .build();
+    }
+
+    private static void writeMatch(Writer writer, Match match) {
+        writer.writeString(match.getMatchId());
+        List<Player> players = match.getPlayers();
+        writer.writeInt(players == null ? -1 : players.size());
+        if (players != null) {
+            players.forEach(player -> writePlayer(writer, player));
+        }
+        writer.writeInt(match.getAverageSkillRating());
+        writer.writeInt(match.getAverageLatency());
+        writer.writeString(match.getServerRegion());
+        writer.writeInstant(match.getCreatedAt());
+        writer.writeEnum(match.getStatus());
+
+        // Version 2 tail, only present on team matches
+        List<Match.Team> teams = match.getTeams();
+        if (teams != null) {
+            writer.writeInt(teams.size());
+            for (Match.Team team : teams) {
+                writer.writeInt(team.getTeamId());
+                List<String> playerIds = team.getPlayerIds();
+                writer.writeInt(playerIds == null ? -1 : playerIds.size());
+                if (playerIds != null) {
+                    playerIds.forEach(writer::writeString);
+                }
+                writer.writeInt(team.getAverageSkillRating());
+            }
+        }
+    }
+
+    private static Match readMatch(Reader reader, int version) {
+        String matchId = reader.readString();
+        int playerCount = reader.readInt();
+        List<Player> players = null;
+        if (playerCount >= 0) {
+            players = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                players.add(readPlayer(reader));
+            }
+        }
+
+        Match match = Match.builder()
+            .matchId(matchId)
+            .players(players)
+            .averageSkillRating(reader.readInt())
+            .averageLatency(reader.readInt())
+            .serverRegion(reader.readString())
+            .createdAt(reader.readInstant())
+            .status(reader.readEnum(Match.MatchStatus.values()))
+            .build();
+
+        if (version >= 2) {
+            match.setTeams(readTeams(reader));
+        }
+        return match;
+    }
+
+    private static List<Match.Team> readTeams(Reader reader) {
+        int teamCount = reader.readInt();
+        List<Match.Team> teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            int teamId = reader.readInt();
+            int playerCount = reader.readInt();
+            List<String> playerIds = null;
+            if (playerCount >= 0) {
+                playerIds = new ArrayList<>(playerCount);
+                for (int p = 0; p < playerCount; p++) {
+                    playerIds.add(reader.readString());
+                }
+            }
+            teams.add(Match.Team.builder()
+                .teamId(teamId)
+                .playerIds(playerIds)
+                .averageSkillRating(reader.readInt())
+                .build());
+        }
+        return teams;
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void header(byte type, int version) {
+            writeByte(MAGIC);
+            writeByte(version);
+            writeByte(type);
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        void writeLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * Length + 1 prefix, so 0 encodes null
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeInstant(Instant value) {
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            writeByte(1);
+            writeLong(value.getEpochSecond());
+            writeVarLong(value.getNano());
+        }
+
+        /**
+         * Ordinal + 1, so 0 encodes null
+         */
+        void writeEnum(Enum<?> value) {
+            writeVarLong(value == null ? 0 : value.ordinal() + 1L);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            if (position >= buffer.length) {
+                throw new SerializationException("Truncated compact record");
+            }
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("Malformed varint in compact record");
+        }
+
+        int readInt() {
+            int raw = (int) readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        long readLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (position + length > buffer.length) {
+                throw new SerializationException("Truncated compact record");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Instant readInstant() {
+            if (readByte() == 0) {
+                return null;
+            }
+            long seconds = readLong();
+            return Instant.ofEpochSecond(seconds, readVarLong());
+        }
+
+        <E extends Enum<E>> E readEnum(E[] values) {
+            int ordinal = (int) readVarLong() - 1;
+            if (ordinal < 0) {
+                return null;
+            }
+            if (ordinal >= values.length) {
+                throw new SerializationException("Unknown enum ordinal " + ordinal + " in compact record");
+            }
+            return values[ordinal];
+        }
+    }
+}
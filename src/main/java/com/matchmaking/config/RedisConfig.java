@@ -1,17 +1,39 @@
 package com.matchmaking.config;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    @Primary
+    public RedisTemplate<String, Object> redisTemplate(
+            RedisConnectionFactory connectionFactory,
+            @Value("${matchmaking.redis.value-format:json}") String valueFormat) {
+        return createTemplate(connectionFactory, valueFormat);
+    }
+
+    /**
+     * Template for reads that may be served by replicas, see ReplicaReadService
+     */
+    @Bean
+    public RedisTemplate<String, Object> replicaRedisTemplate(
+            ReplicaConnections replicaConnections,
+            @Value("${matchmaking.redis.value-format:json}") String valueFormat) {
+        return createTemplate(replicaConnections.getConnectionFactory(), valueFormat);
+    }
+
+    private static RedisTemplate<String, Object> createTemplate(RedisConnectionFactory connectionFactory, String valueFormat) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         
@@ -19,11 +41,24 @@ public class RedisConfig {
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
         
-        // Use JSON serializer for values
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        // Players and matches are written as JSON or compact binary; both formats are always readable
+        RedisSerializer<Object> valueSerializer = new CompactRedisSerializer(
+            jsonValueSerializer(), "compact".equalsIgnoreCase(valueFormat));
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
         
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * JSON serializer with type hints, writing instants as ISO-8601 text
+     */
+    public static GenericJackson2JsonRedisSerializer jsonValueSerializer() {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        serializer.configure(mapper -> mapper
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        return serializer;
+    }
 }
@@ -1,36 +1,106 @@
 package com.matchmaking.config;
 
-import io.lettuce.core.ClientOptions;
-import io.lettuce.core.SocketOptions;
+import io.lettuce.core.ReadFrom;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 
-import java.time.Duration;
+import java.util.List;
 
 /**
- * Advanced Redis connection configuration for high performance
+ * Redis connection configuration.
+ * The primary connection factory is Spring Boot's, built from spring.data.redis.*
+ * (host/port or cluster nodes, timeouts, SSL, pool and cluster topology refresh).
+ *
+ * A second factory serves reads that tolerate some lag. It reuses the primary's client
+ * settings and routes reads with matchmaking.redis.read-from to the cluster's replicas,
+ * or in standalone mode to the replicas listed in matchmaking.redis.replica-nodes.
  */
 @Configuration
 public class RedisConnectionConfig {
 
+    /**
+     * Connections for replica reads, see ReplicaReadService.
+     * Without replicas to route to the primary factory is used as is.
+     */
     @Bean
-    public LettuceClientConfiguration lettuceClientConfiguration() {
-        SocketOptions socketOptions = SocketOptions.builder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .keepAlive(true)
-            .build();
+    public ReplicaConnections replicaConnections(
+            LettuceConnectionFactory redisConnectionFactory,
+            @Value("${matchmaking.redis.read-from:REPLICA_PREFERRED}") String readFrom,
+            @Value("${matchmaking.redis.replica-nodes:}") List<String> replicaNodes) {
+        List<String> replicas = replicaNodes.stream().filter(node -> !node.isBlank()).toList();
 
-        ClientOptions clientOptions = ClientOptions.builder()
-            .socketOptions(socketOptions)
-            .autoReconnect(true)
-            .build();
+        RedisConfiguration configuration;
+        if (redisConnectionFactory.isClusterAware()) {
+            configuration = redisConnectionFactory.getClusterConfiguration();
+        } else if (!replicas.isEmpty()) {
+            RedisStandaloneConfiguration primary = redisConnectionFactory.getStandaloneConfiguration();
+            RedisStaticMasterReplicaConfiguration masterReplica =
+                new RedisStaticMasterReplicaConfiguration(primary.getHostName(), primary.getPort());
+            replicas.forEach(node -> {
+                RedisNode replica = RedisNode.fromString(node);
+                masterReplica.addNode(replica.getHost(), replica.getPort());
+            });
+            masterReplica.setDatabase(primary.getDatabase());
+            masterReplica.setUsername(primary.getUsername());
+            masterReplica.setPassword(primary.getPassword());
+            configuration = masterReplica;
+        } else {
+            return new ReplicaConnections(redisConnectionFactory, null);
+        }
+
+        LettuceClientConfiguration clientConfiguration =
+            replicaClientConfiguration(redisConnectionFactory.getClientConfiguration(), readFrom(readFrom));
+        return new ReplicaConnections(
+            redisConnectionFactory, new LettuceConnectionFactory(configuration, clientConfiguration));
+    }
+
+    /**
+     * Lettuce's ReadFrom for matchmaking.redis.read-from. Accepts constant style names
+     * such as REPLICA_PREFERRED as well as Lettuce's own (replicaPreferred, subnet:...).
+     */
+    static ReadFrom readFrom(String setting) {
+        int colon = setting.indexOf(':');
+        String name = colon < 0 ? setting : setting.substring(0, colon);
+        String value = colon < 0 ? "" : setting.substring(colon);
+        return ReadFrom.valueOf(name.trim().replace("_", "") + value);
+    }
+
+    /**
+     * The primary's client settings with reads routed by readFrom.
+     * Lettuce multiplexes plain reads over one connection, so the replica factory
+     * does not pool connections.
+     */
+    private static LettuceClientConfiguration replicaClientConfiguration(
+            LettuceClientConfiguration primary, ReadFrom readFrom) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder();
+        if (primary.isUseSsl()) {
+            LettuceClientConfiguration.LettuceSslClientConfigurationBuilder ssl = builder.useSsl();
+            if (!primary.isVerifyPeer()) {
+                ssl.disablePeerVerification();
+            }
+            if (primary.isStartTls()) {
+                ssl.startTls();
+            }
+            builder = ssl.and();
+        }
+
+        primary.getClientResources().ifPresent(builder::clientResources);
+        primary.getClientOptions().ifPresent(builder::clientOptions);
+        primary.getClientName().ifPresent(builder::clientName);
+        primary.getRedisCredentialsProviderFactory().ifPresent(builder::redisCredentialsProviderFactory);
 
-        return LettuceClientConfiguration.builder()
-            .clientOptions(clientOptions)
-            .commandTimeout(Duration.ofSeconds(5))
+        return builder
+            .readFrom(readFrom)
+            .commandTimeout(primary.getCommandTimeout())
+            .shutdownTimeout(primary.getShutdownTimeout())
+            .shutdownQuietPeriod(primary.getShutdownQuietPeriod())
             .build();
     }
 }
@@ -0,0 +1,53 @@
+package com.matchmaking.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Server-side Lua scripts for multi-step queue operations.
+ * RedisTemplate runs them with EVALSHA and falls back to EVAL on first use.
+ */
+@Configuration
+public class RedisScriptConfig {
+
+    @Bean
+    public RedisScript<Long> joinQueueScript() {
+        return RedisScript.of(new ClassPathResource("scripts/join_queue.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> leaveQueueScript() {
+        return RedisScript.of(new ClassPathResource("scripts/leave_queue.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> acquireLockScript() {
+        return RedisScript.of(new ClassPathResource("scripts/acquire_lock.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> renewLockScript() {
+        return RedisScript.of(new ClassPathResource("scripts/renew_lock.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> releaseLockScript() {
+        return RedisScript.of(new ClassPathResource("scripts/release_lock.lua"), Long.class);
+    }
+
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RedisScript<List> commitMatchesScript() {
+        return RedisScript.of(new ClassPathResource("scripts/commit_matches.lua"), List.class);
+    }
+
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RedisScript<List> skillCandidatesScript() {
+        return RedisScript.of(new ClassPathResource("scripts/skill_candidates.lua"), List.class);
+    }
+}
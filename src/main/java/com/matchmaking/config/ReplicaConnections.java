@@ -0,0 +1,43 @@
+package com.matchmaking.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+/**
+ * Connection factory for replica reads, see RedisConnectionConfig.
+ * Not itself a RedisConnectionFactory bean, so Spring Boot still autoconfigures the
+ * primary factory; a dedicated replica factory is started and stopped with this bean.
+ */
+public class ReplicaConnections implements InitializingBean, DisposableBean {
+
+    private final RedisConnectionFactory primaryFactory;
+    private final LettuceConnectionFactory replicaFactory;
+
+    /**
+     * @param replicaFactory factory routing reads to replicas, or null to read from the primary
+     */
+    ReplicaConnections(RedisConnectionFactory primaryFactory, LettuceConnectionFactory replicaFactory) {
+        this.primaryFactory = primaryFactory;
+        this.replicaFactory = replicaFactory;
+    }
+
+    public RedisConnectionFactory getConnectionFactory() {
+        return replicaFactory != null ? replicaFactory : primaryFactory;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (replicaFactory != null) {
+            replicaFactory.afterPropertiesSet();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (replicaFactory != null) {
+            replicaFactory.destroy();
+        }
+    }
+}
@@ -5,14 +5,17 @@ import com.matchmaking.model.Match;
 import com.matchmaking.model.MatchResult;
 import com.matchmaking.model.MatchmakingRequest;
 import com.matchmaking.model.Player;
+import com.matchmaking.service.MatchNotificationService;
 import com.matchmaking.service.MatchmakingService;
 import com.matchmaking.service.QueueService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST API endpoints for matchmaking operations
@@ -25,6 +28,7 @@ public class MatchmakingController {
 
     private final MatchmakingService matchmakingService;
     private final QueueService queueService;
+    private final MatchNotificationService matchNotificationService;
 
     /**
      * Join the matchmaking queue
@@ -36,11 +40,10 @@ public class MatchmakingController {
         
         log.info("Player {} requesting to join queue", request.getPlayerId());
         
-        // Check if player is already in queue
-        if (queueService.isPlayerInQueue(request.getPlayerId())) {
+        if (!queueService.isSupportedRegion(request.getRegion())) {
             return ResponseEntity
-                .status(HttpStatus.CONFLICT)
-                .body(ApiResponse.error("Player already in queue"));
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("Unsupported region: " + request.getRegion()));
         }
         
         // Convert request to Player model
@@ -52,9 +55,14 @@ public class MatchmakingController {
             .region(request.getRegion())
             .build();
         
-        matchmakingService.joinQueue(player);
+        // Duplicate check, enqueue and position lookup happen atomically in Redis
+        long position = matchmakingService.joinQueue(player);
         
-        long position = queueService.getPlayerPosition(request.getPlayerId());
+        if (position < 0) {
+            return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Player already in queue"));
+        }
         
         return ResponseEntity.ok(ApiResponse.success(
             request.getPlayerId(),
@@ -110,6 +118,16 @@ public class MatchmakingController {
         }
     }
 
+    /**
+     * Stream the player's match as a Server-Sent Event instead of polling matchResult
+     * GET /api/matchmaking/matchEvents/{playerId}
+     */
+    @GetMapping(value = "/matchEvents/{playerId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToMatch(@PathVariable String playerId) {
+        log.debug("Player {} subscribing to match events", playerId);
+        return matchNotificationService.subscribe(playerId);
+    }
+
     /**
      * Get current queue status
      * GET /api/matchmaking/queueStatus
@@ -0,0 +1,210 @@
+package com.matchmaking.filter;
+
+import com.matchmaking.service.ShardOwnershipService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process rate limiter whose counts are shared through Redis in the background.
+ * Each node counts requests per client and fixed window in memory and periodically
+ * adds its new counts to a per-window Redis counter with pipelined INCRBY, learning
+ * what the other nodes admitted from the totals.
+ *
+ * A node admits at most rate.limit.sync.max-unsynced-fraction of the limit per client
+ * before its counts reach Redis, and asks for an early sync when it gets there, so with
+ * N nodes a client can overshoot the limit by at most N times that share.
+ *
+ * While syncs fail, a node cannot learn what the others admitted. It then admits up to
+ * its per-node share of the limit per client, the limit divided by the live replicas,
+ * so an outage of Redis does not throttle every client to the unsynced share.
+ */
+@Slf4j
+@Component
+public class LocalRateLimiter {
+
+    private static final String KEY_PREFIX = "rate_limit:window:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ShardOwnershipService shardOwnershipService;
+    private final int maxRequests;
+    private final long durationMs;
+    private final int unsyncedBudget;
+
+    private final Map<String, ClientWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicBoolean syncRequested = new AtomicBoolean();
+    private volatile boolean syncFailing;
+    private final ExecutorService syncExecutor =
+        Executors.newSingleThreadExecutor(new CustomizableThreadFactory("rate-limit-sync-"));
+
+    public LocalRateLimiter(
+            RedisTemplate<String, Object> redisTemplate,
+            ShardOwnershipService shardOwnershipService,
+            @Value("${rate.limit.requests:100}") int maxRequests,
+            @Value("${rate.limit.duration:60000}") long durationMs,
+            @Value("${rate.limit.sync.max-unsynced-fraction:0.1}") double maxUnsyncedFraction) {
+        this.redisTemplate = redisTemplate;
+        this.shardOwnershipService = shardOwnershipService;
+        this.maxRequests = maxRequests;
+        this.durationMs = durationMs;
+        this.unsyncedBudget = Math.max(1, (int) Math.ceil(maxRequests * maxUnsyncedFraction));
+    }
+
+    /**
+     * Count a request against the client's current window without touching Redis
+     *
+     * @return false if the request should be rejected
+     */
+    public boolean tryAcquire(String clientId) {
+        long window = System.currentTimeMillis() / durationMs;
+        ClientWindow clientWindow = windows.compute(clientId, (id, existing) ->
+            existing != null && existing.window == window ? existing : new ClientWindow(window));
+
+        // Without syncs the scheduled retry is all that can help, so no early sync either
+        boolean failing = syncFailing;
+        int budget = failing ? Math.max(unsyncedBudget, perNodeShare()) : unsyncedBudget;
+
+        boolean admitted;
+        boolean syncNeeded;
+        synchronized (clientWindow) {
+            if (clientWindow.admitted + clientWindow.remote >= maxRequests) {
+                return false;
+            }
+
+            // Past the unsynced budget, wait for this node's counts to reach Redis
+            long unsynced = clientWindow.admitted - clientWindow.synced;
+            admitted = unsynced < budget;
+            if (admitted) {
+                clientWindow.admitted++;
+                unsynced++;
+            }
+            syncNeeded = !failing && unsynced >= budget;
+        }
+
+        if (syncNeeded) {
+            requestSync();
+        }
+        return admitted;
+    }
+
+    /**
+     * Push unsynced counts to Redis and refresh what the other nodes admitted
+     */
+    @Scheduled(fixedDelayString = "${rate.limit.sync.interval-ms:1000}")
+    public synchronized void sync() {
+        long currentWindow = System.currentTimeMillis() / durationMs;
+        windows.entrySet().removeIf(entry -> entry.getValue().window < currentWindow);
+
+        List<String> clients = new ArrayList<>();
+        List<ClientWindow> pending = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        windows.forEach((clientId, clientWindow) -> {
+            synchronized (clientWindow) {
+                long delta = clientWindow.admitted - clientWindow.synced;
+                if (delta > 0) {
+                    clients.add(clientId);
+                    pending.add(clientWindow);
+                    deltas.add(delta);
+                }
+            }
+        });
+
+        if (clients.isEmpty()) {
+            return;
+        }
+
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < clients.size(); i++) {
+                    byte[] key = windowKey(clients.get(i), pending.get(i).window);
+                    connection.stringCommands().incrBy(key, deltas.get(i));
+                    connection.keyCommands().pExpire(key, durationMs * 2);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            if (!syncFailing) {
+                log.warn("Rate limit sync failed for {} clients, admitting up to {} requests per client locally: {}",
+                    clients.size(), perNodeShare(), e.getMessage());
+            }
+            syncFailing = true;
+            return;
+        }
+        if (syncFailing) {
+            log.info("Rate limit sync recovered");
+        }
+        syncFailing = false;
+
+        for (int i = 0; i < clients.size(); i++) {
+            ClientWindow clientWindow = pending.get(i);
+            long total = ((Number) results.get(i * 2)).longValue();
+            synchronized (clientWindow) {
+                clientWindow.synced += deltas.get(i);
+                clientWindow.remote = Math.max(0, total - clientWindow.synced);
+            }
+        }
+
+        log.debug("Synced rate limit counts for {} clients", clients.size());
+    }
+
+    /**
+     * This node's share of the limit, split evenly across the live replicas
+     */
+    private int perNodeShare() {
+        int nodes = Math.max(1, shardOwnershipService.getLiveNodes().size());
+        return Math.max(1, maxRequests / nodes);
+    }
+
+    private void requestSync() {
+        if (!syncRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            syncExecutor.execute(() -> {
+                syncRequested.set(false);
+                sync();
+            });
+        } catch (RejectedExecutionException e) {
+            syncRequested.set(false);
+        }
+    }
+
+    private byte[] windowKey(String clientId, long window) {
+        return (KEY_PREFIX + clientId + ":" + window).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdown();
+    }
+
+    private static final class ClientWindow {
+        private final long window;
+        // Requests admitted by this node in the window
+        private long admitted;
+        // Part of admitted already added to the Redis counter
+        private long synced;
+        // Requests admitted by other nodes, as of the last sync
+        private long remote;
+
+        ClientWindow(long window) {
+            this.window = window;
+        }
+    }
+}
@@ -13,14 +13,22 @@ import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Rate limiting filter using Redis
+ * Rate limiting filter using Redis, directly or through {@link LocalRateLimiter}
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RateLimitFilter implements Filter {
 
+    // Health probes must never be throttled; every other endpoint is counted
+    private static final String EXEMPT_PATH_PREFIX = "/actuator/health";
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final LocalRateLimiter localRateLimiter;
+
+    // redis: count every request in Redis; local: count in process and sync to Redis in the background
+    @Value("${rate.limit.mode:redis}")
+    private String mode;
 
     @Value("${rate.limit.requests:100}")
     private int maxRequests;
@@ -37,29 +45,41 @@ public class RateLimitFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
         
-        String clientId = getClientIdentifier(httpRequest);
-        String rateLimitKey = "rate_limit:" + clientId;
+        if (httpRequest.getRequestURI().startsWith(EXEMPT_PATH_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
         
-        // Get current request count
-        Object countObj = redisTemplate.opsForValue().get(rateLimitKey);
-        int currentCount = countObj != null ? Integer.parseInt(countObj.toString()) : 0;
+        String clientId = getClientIdentifier(httpRequest);
+        boolean allowed = "local".equalsIgnoreCase(mode)
+            ? localRateLimiter.tryAcquire(clientId)
+            : tryAcquireInRedis(clientId);
         
-        if (currentCount >= maxRequests) {
+        if (!allowed) {
             log.warn("Rate limit exceeded for client: {}", clientId);
             httpResponse.setStatus(429); // Too Many Requests
             httpResponse.getWriter().write("Rate limit exceeded");
             return;
         }
         
-        // Increment counter
-        redisTemplate.opsForValue().increment(rateLimitKey);
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Count the request in Redis. INCR comes first, so concurrent requests
+     * cannot all pass a stale read of the counter.
+     */
+    private boolean tryAcquireInRedis(String clientId) {
+        String rateLimitKey = "rate_limit:" + clientId;
+        
+        Long currentCount = redisTemplate.opsForValue().increment(rateLimitKey);
         
         // Set expiry on first request
-        if (currentCount == 0) {
+        if (currentCount != null && currentCount == 1) {
             redisTemplate.expire(rateLimitKey, durationMs, TimeUnit.MILLISECONDS);
         }
         
-        chain.doFilter(request, response);
+        return currentCount == null || currentCount <= maxRequests;
     }
 
     /**
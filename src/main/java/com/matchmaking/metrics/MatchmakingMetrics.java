@@ -1,51 +1,201 @@
 package com.matchmaking.metrics;
 
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 /**
- * Metrics tracking for matchmaking performance
+ * Metrics tracking for matchmaking performance.
+ * Meters are tagged by region and registered at startup for every region in
+ * matchmaking.regions, so each region exports series before its first event and
+ * recording on the hot path is a map lookup and an update.
  */
 @Component
-@RequiredArgsConstructor
 public class MatchmakingMetrics {
 
     private final MeterRegistry meterRegistry;
 
-    public void recordMatchCreated() {
-        Counter.builder("matchmaking.matches.created")
-            .description("Total number of matches created")
-            .register(meterRegistry)
-            .increment();
+    private final Map<String, RegionMeters> regions = new ConcurrentHashMap<>();
+
+    // Reads a region's live queue size for its gauge; NaN until the queue service binds it
+    private volatile ToDoubleFunction<String> queueSizes = region -> Double.NaN;
+
+    public MatchmakingMetrics(
+            MeterRegistry meterRegistry,
+            @Value("${matchmaking.regions:us-east,us-west,eu-west,ap-southeast}") List<String> configuredRegions) {
+        this.meterRegistry = meterRegistry;
+        configuredRegions.forEach(this::metersFor);
+    }
+
+    public void recordPlayerJoined(String region) {
+        metersFor(region).playersJoined().increment();
+    }
+
+    public void recordPlayerLeft(String region) {
+        metersFor(region).playersLeft().increment();
+    }
+
+    /**
+     * Record a committed match, its quality score and how long its players waited
+     */
+    public void recordMatchCreated(Match match, double quality) {
+        RegionMeters meters = metersFor(match.getServerRegion());
+        meters.matchesCreated().increment();
+        meters.matchQuality().record(quality);
+
+        if (match.getCreatedAt() != null) {
+            for (Player player : match.getPlayers()) {
+                if (player.getQueuedAt() != null) {
+                    meters.queueWaitTime().record(Duration.between(player.getQueuedAt(), match.getCreatedAt()));
+                }
+            }
+        }
     }
 
-    public void recordPlayerJoined() {
-        Counter.builder("matchmaking.players.joined")
-            .description("Total number of players joined queue")
-            .register(meterRegistry)
-            .increment();
+    /**
+     * Export a finished tick profile: total and per-phase time plus work done
+     */
+    public void recordTickProfile(TickProfile profile) {
+        RegionMeters meters = metersFor(profile.getRegion());
+        meters.matchmakingTime().record(profile.getTotalNanos(), TimeUnit.NANOSECONDS);
+        for (TickProfile.Phase phase : TickProfile.Phase.values()) {
+            meters.tickPhases()[phase.ordinal()].record(profile.getPhaseNanos(phase), TimeUnit.NANOSECONDS);
+        }
+        meters.tickRedisCommands().record(profile.getRedisCommands());
+        meters.tickCompatibilityChecks().record(profile.getCompatibilityChecks());
+        meters.tickCandidatesExamined().record(profile.getCandidatesExamined());
     }
 
-    public void recordPlayerLeft() {
-        Counter.builder("matchmaking.players.left")
-            .description("Total number of players left queue")
-            .register(meterRegistry)
-            .increment();
+    public void recordTickSkipped(String region) {
+        metersFor(region).ticksSkipped().increment();
     }
 
-    public void recordMatchmakingTime(Duration duration) {
-        Timer.builder("matchmaking.time")
-            .description("Time taken to find a match")
-            .register(meterRegistry)
-            .record(duration);
+    public void recordQueueFetch(String region, int roundTrips, Duration duration) {
+        RegionMeters meters = metersFor(region);
+        meters.queueFetchRoundTrips().record(roundTrips);
+        meters.queueFetchLatency().record(duration);
+    }
+
+    /**
+     * Back the region queue size gauges with live queue state, so every pod exports
+     * the current size whichever pod ticks the region
+     */
+    public void bindQueueSize(ToDoubleFunction<String> source) {
+        this.queueSizes = source;
+    }
+
+    private RegionMeters metersFor(String region) {
+        String tag = region != null ? region : "unknown";
+        RegionMeters meters = regions.get(tag);
+        return meters != null ? meters : regions.computeIfAbsent(tag, this::registerRegion);
+    }
+
+    private RegionMeters registerRegion(String region) {
+        Timer[] tickPhases = new Timer[TickProfile.Phase.values().length];
+        for (TickProfile.Phase phase : TickProfile.Phase.values()) {
+            tickPhases[phase.ordinal()] = Timer.builder("matchmaking.tick.phase")
+                .description("Time spent in each phase of a matchmaking tick")
+                .tag("region", region)
+                .tag("phase", phase.name().toLowerCase())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+
+        Gauge.builder("matchmaking.queue.size", this, metrics -> metrics.queueSizes.applyAsDouble(region))
+            .description("Players waiting in the region queue")
+            .tag("region", region)
+            .register(meterRegistry);
+
+        return new RegionMeters(
+            Counter.builder("matchmaking.players.joined")
+                .description("Total number of players joined queue")
+                .tag("region", region)
+                .register(meterRegistry),
+            Counter.builder("matchmaking.players.left")
+                .description("Total number of players left queue")
+                .tag("region", region)
+                .register(meterRegistry),
+            Counter.builder("matchmaking.matches.created")
+                .description("Total number of matches created")
+                .tag("region", region)
+                .register(meterRegistry),
+            DistributionSummary.builder("matchmaking.match.quality")
+                .description("Quality score (0-100) of created matches")
+                .tag("region", region)
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(100.0)
+                .publishPercentileHistogram()
+                .register(meterRegistry),
+            Timer.builder("matchmaking.queue.wait.time")
+                .description("Time players spend in queue before being matched")
+                .tag("region", region)
+                .publishPercentileHistogram()
+                .register(meterRegistry),
+            Counter.builder("matchmaking.ticks")
+                .description("Ticks skipped because another replica held the shard lock")
+                .tag("region", region)
+                .tag("outcome", "skipped")
+                .register(meterRegistry),
+            Timer.builder("matchmaking.time")
+                .description("Time taken by a matchmaking tick of a region")
+                .tag("region", region)
+                .publishPercentileHistogram()
+                .register(meterRegistry),
+            DistributionSummary.builder("matchmaking.queue.fetch.round_trips")
+                .description("Redis round trips used to read a region queue")
+                .tag("region", region)
+                .register(meterRegistry),
+            Timer.builder("matchmaking.queue.fetch.latency")
+                .description("Time taken to read a region queue from Redis")
+                .tag("region", region)
+                .publishPercentileHistogram()
+                .register(meterRegistry),
+            tickPhases,
+            DistributionSummary.builder("matchmaking.tick.redis_commands")
+                .description("Redis commands issued by a matchmaking tick")
+                .tag("region", region)
+                .publishPercentileHistogram()
+                .register(meterRegistry),
+            DistributionSummary.builder("matchmaking.tick.compatibility_checks")
+                .description("Candidate lookups made while pairing players in a tick")
+                .tag("region", region)
+                .publishPercentileHistogram()
+                .register(meterRegistry),
+            DistributionSummary.builder("matchmaking.tick.candidates_examined")
+                .description("Candidates considered while pairing players in a tick")
+                .tag("region", region)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+        );
     }
 
-    public void recordQueueSize(long size) {
-        meterRegistry.gauge("matchmaking.queue.size", size);
+    private record RegionMeters(
+        Counter playersJoined,
+        Counter playersLeft,
+        Counter matchesCreated,
+        DistributionSummary matchQuality,
+        Timer queueWaitTime,
+        Counter ticksSkipped,
+        Timer matchmakingTime,
+        DistributionSummary queueFetchRoundTrips,
+        Timer queueFetchLatency,
+        Timer[] tickPhases,
+        DistributionSummary tickRedisCommands,
+        DistributionSummary tickCompatibilityChecks,
+        DistributionSummary tickCandidatesExamined
+    ) {
     }
 }
@@ -0,0 +1,151 @@
+package com.matchmaking.metrics;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Phase timings and work counters of one matchmaking tick of a region shard.
+ * The profile of the running tick is bound to the tick's thread, so services can
+ * add to it through the static helpers without passing it around; they are
+ * no-ops outside a profiled tick.
+ */
+public class TickProfile {
+
+    public enum Phase {
+        LOCK_WAIT,
+        FETCH,
+        PAIRING,
+        COMMIT
+    }
+
+    private static final ThreadLocal<TickProfile> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final String region;
+    @Getter
+    private final Instant startedAt;
+    @Getter
+    private int queueSize;
+    @Getter
+    private int candidatesExamined;
+    @Getter
+    private int compatibilityChecks;
+    @Getter
+    private int redisCommands;
+    @Getter
+    private int matchesFormed;
+    @Getter
+    private int matchesRejected;
+    @Getter
+    private String error;
+
+    private boolean skipped;
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long totalNanos;
+
+    private final long startNanos;
+    private long phaseStartNanos;
+
+    TickProfile(String region) {
+        this.region = region;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+        this.phaseStartNanos = startNanos;
+    }
+
+    /**
+     * The profile of the tick running on this thread, or null
+     */
+    public static TickProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * End a phase: the time since the previous phase ended is charged to it
+     */
+    public static void endPhase(Phase phase) {
+        TickProfile profile = CURRENT.get();
+        if (profile != null) {
+            long now = System.nanoTime();
+            profile.phaseNanos[phase.ordinal()] += now - profile.phaseStartNanos;
+            profile.phaseStartNanos = now;
+        }
+    }
+
+    public static void addRedisCommands(int count) {
+        TickProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.redisCommands += count;
+        }
+    }
+
+    public static void addPairingWork(int candidatesExamined, int compatibilityChecks) {
+        TickProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.candidatesExamined += candidatesExamined;
+            profile.compatibilityChecks += compatibilityChecks;
+        }
+    }
+
+    public static void recordOutcome(int queueSize, int matchesFormed, int matchesRejected) {
+        TickProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.queueSize = queueSize;
+            profile.matchesFormed = matchesFormed;
+            profile.matchesRejected = matchesRejected;
+        }
+    }
+
+    /**
+     * Mark the running tick as skipped because another replica holds the shard lock
+     */
+    public static void markSkipped() {
+        TickProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.skipped = true;
+        }
+    }
+
+    /**
+     * Phase durations in milliseconds, in execution order
+     */
+    public Map<String, Double> getPhaseMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            millis.put(phase.name().toLowerCase(), phaseNanos[phase.ordinal()] / 1_000_000.0);
+        }
+        return millis;
+    }
+
+    public double getTotalMillis() {
+        return totalNanos / 1_000_000.0;
+    }
+
+    long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    long getTotalNanos() {
+        return totalNanos;
+    }
+
+    boolean isSkipped() {
+        return skipped;
+    }
+
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    void finish(Throwable failure) {
+        CURRENT.remove();
+        totalNanos = System.nanoTime() - startNanos;
+        if (failure != null) {
+            error = failure.getMessage();
+        }
+    }
+}
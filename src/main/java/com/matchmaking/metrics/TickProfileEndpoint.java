@@ -0,0 +1,32 @@
+package com.matchmaking.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recent matchmaking tick profiles
+ * GET /actuator/matchmaking-ticks
+ * GET /actuator/matchmaking-ticks/{region}
+ */
+@Component
+@Endpoint(id = "matchmakingticks")
+@RequiredArgsConstructor
+public class TickProfileEndpoint {
+
+    private final TickProfiler tickProfiler;
+
+    @ReadOperation
+    public List<TickProfile> ticks() {
+        return tickProfiler.getRecentTicks();
+    }
+
+    @ReadOperation
+    public List<TickProfile> ticksForRegion(@Selector String region) {
+        return tickProfiler.getRecentTicks(region);
+    }
+}
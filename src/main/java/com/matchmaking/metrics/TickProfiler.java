@@ -0,0 +1,85 @@
+package com.matchmaking.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Profiles matchmaking ticks: keeps the most recent profiles in a ring buffer
+ * for the matchmaking-ticks actuator endpoint and exports each one as histograms.
+ * Ticks skipped because another replica held the shard lock did no work; they are
+ * only counted, so they do not crowd out real ticks or pull the timers toward zero.
+ */
+@Slf4j
+@Component
+public class TickProfiler {
+
+    private final MatchmakingMetrics matchmakingMetrics;
+    private final TickProfile[] history;
+    private long recorded;
+
+    public TickProfiler(
+            MatchmakingMetrics matchmakingMetrics,
+            @Value("${matchmaking.profiler.history-size:100}") int historySize) {
+        this.matchmakingMetrics = matchmakingMetrics;
+        this.history = new TickProfile[Math.max(1, historySize)];
+    }
+
+    /**
+     * Run a tick of a region shard with a profile bound to the current thread
+     */
+    public <T> T profile(String region, Supplier<T> tick) {
+        TickProfile profile = new TickProfile(region);
+        profile.bind();
+        Throwable failure = null;
+        try {
+            return tick.get();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            profile.finish(failure);
+            record(profile);
+        }
+    }
+
+    /**
+     * The most recent tick profiles, newest first
+     */
+    public synchronized List<TickProfile> getRecentTicks() {
+        int count = (int) Math.min(recorded, history.length);
+        List<TickProfile> ticks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ticks.add(history[(int) ((recorded - i) % history.length)]);
+        }
+        return ticks;
+    }
+
+    /**
+     * The most recent tick profiles of one region, newest first
+     */
+    public List<TickProfile> getRecentTicks(String region) {
+        return getRecentTicks().stream()
+            .filter(profile -> profile.getRegion().equals(region))
+            .toList();
+    }
+
+    private void record(TickProfile profile) {
+        if (profile.isSkipped()) {
+            matchmakingMetrics.recordTickSkipped(profile.getRegion());
+            return;
+        }
+
+        synchronized (this) {
+            history[(int) (recorded % history.length)] = profile;
+            recorded++;
+        }
+
+        matchmakingMetrics.recordTickProfile(profile);
+        log.debug("Tick of {} took {}ms: {}", profile.getRegion(), profile.getTotalMillis(), profile.getPhaseMillis());
+    }
+}
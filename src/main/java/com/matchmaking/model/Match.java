@@ -16,12 +16,26 @@ import java.util.List;
 public class Match implements Serializable {
     private String matchId;
     private List<Player> players;
+    private List<Team> teams;
     private int averageSkillRating;
     private int averageLatency;
     private String serverRegion;
     private Instant createdAt;
     private MatchStatus status;
     
+    /**
+     * One side of a team match; players are referenced by id from {@link #players}
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Team implements Serializable {
+        private int teamId;
+        private List<String> playerIds;
+        private int averageSkillRating;
+    }
+
     public enum MatchStatus {
         PENDING,
         READY,
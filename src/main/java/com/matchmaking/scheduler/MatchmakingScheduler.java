@@ -1,13 +1,44 @@
 package com.matchmaking.scheduler;
 
+import com.matchmaking.service.ArrivalRelayService;
+import com.matchmaking.service.MatchShard;
 import com.matchmaking.service.MatchmakingService;
+import com.matchmaking.service.PlayerQueuedEvent;
+import com.matchmaking.service.QueueService;
+import com.matchmaking.service.ShardLayout;
+import com.matchmaking.service.ShardOwnershipService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * Scheduled task to process matchmaking at regular intervals
+ * Scheduled task to process matchmaking.
+ * Every shard, a region or a skill band of one (see ShardLayout), ticks on its own
+ * executor, so a slow shard never delays the others.
+ *
+ * In fixed mode every shard ticks each sweep interval. In event mode a shard ticks
+ * once matchmaking.tick.arrival-threshold players have joined it since its last tick,
+ * or after matchmaking.tick.max-delay-ms if it still has players waiting. Ticks of a
+ * shard start at least matchmaking.tick.min-interval-ms apart, and requests that
+ * arrive while a tick is pending are folded into it.
+ *
+ * With several replicas each one only ticks the shards it owns, see ShardOwnershipService.
+ * In event mode, joins that land on a replica which does not own their shard are
+ * forwarded to the owner through ArrivalRelayService.
  */
 @Slf4j
 @Component
@@ -15,16 +46,130 @@ import org.springframework.stereotype.Component;
 public class MatchmakingScheduler {
 
     private final MatchmakingService matchmakingService;
+    private final QueueService queueService;
+    private final ShardOwnershipService shardOwnershipService;
+    private final ShardLayout shardLayout;
+    private final ArrivalRelayService arrivalRelayService;
+
+    @Value("${matchmaking.tick.mode:fixed}")
+    private String tickMode;
+
+    @Value("${matchmaking.tick.min-interval-ms:50}")
+    private long minIntervalMs;
+
+    @Value("${matchmaking.tick.max-delay-ms:2000}")
+    private long maxDelayMs;
+
+    @Value("${matchmaking.tick.arrival-threshold:1}")
+    private int arrivalThreshold;
+
+    private final Map<String, ShardTicker> shards = new ConcurrentHashMap<>();
 
     /**
-     * Process matchmaking every 2 seconds
+     * Tick every owned shard in fixed mode, or owned shards past their maximum delay in event mode
      */
-    @Scheduled(fixedDelay = 2000)
+    @Scheduled(fixedDelayString = "${matchmaking.tick.sweep-interval-ms:2000}")
     public void processMatchmaking() {
         try {
-            matchmakingService.processMatchmaking();
+            boolean eventMode = isEventMode();
+            long now = System.currentTimeMillis();
+
+            for (String region : queueService.getRegions()) {
+                for (MatchShard shard : shardLayout.shardsOf(region)) {
+                    if (!shardOwnershipService.ownsShard(shard.id())) {
+                        continue;
+                    }
+                    ShardTicker ticker = tickerFor(shard);
+                    if (!eventMode) {
+                        requestTick(shard, ticker);
+                    } else if (now - ticker.lastTickStartedAt >= maxDelayMs && queueService.getQueueSize(region) > 0) {
+                        requestTick(shard, ticker);
+                    }
+                }
+            }
         } catch (Exception e) {
             log.error("Error processing matchmaking", e);
         }
     }
+
+    /**
+     * Count an arrival against its shard and tick once the threshold is reached.
+     * Local arrivals for a shard owned by another replica are forwarded to it;
+     * forwarded arrivals are not passed on again if ownership moved meanwhile.
+     */
+    @EventListener
+    public void onPlayerQueued(PlayerQueuedEvent event) {
+        if (!isEventMode() || event.region() == null) {
+            return;
+        }
+        MatchShard shard = shardLayout.shardFor(event.region(), event.skillRating());
+        if (!shardOwnershipService.ownsShard(shard.id())) {
+            if (!event.forwarded()) {
+                arrivalRelayService.forward(event);
+            }
+            return;
+        }
+
+        ShardTicker ticker = tickerFor(shard);
+        if (ticker.pendingArrivals.incrementAndGet() >= arrivalThreshold) {
+            requestTick(shard, ticker);
+        }
+    }
+
+    /**
+     * Schedule a tick for a shard unless one is already pending.
+     * A tick that is running does not count as pending, so arrivals during it
+     * queue exactly one follow-up tick.
+     */
+    private void requestTick(MatchShard shard, ShardTicker ticker) {
+        if (!ticker.tickPending.compareAndSet(false, true)) {
+            log.debug("Coalescing tick request for {} into the pending tick", shard.id());
+            return;
+        }
+
+        long delay = Math.max(0, ticker.lastTickStartedAt + minIntervalMs - System.currentTimeMillis());
+        try {
+            ticker.executor.schedule(() -> runTick(shard, ticker), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            ticker.tickPending.set(false);
+            log.warn("Tick for shard {} rejected: {}", shard.id(), e.getMessage());
+        }
+    }
+
+    private void runTick(MatchShard shard, ShardTicker ticker) {
+        ticker.tickPending.set(false);
+        ticker.pendingArrivals.set(0);
+        ticker.lastTickStartedAt = System.currentTimeMillis();
+
+        try {
+            matchmakingService.processMatchmaking(shard);
+        } catch (Exception e) {
+            log.error("Error processing matchmaking for shard {}", shard.id(), e);
+        }
+    }
+
+    private boolean isEventMode() {
+        return "event".equalsIgnoreCase(tickMode);
+    }
+
+    private ShardTicker tickerFor(MatchShard shard) {
+        return shards.computeIfAbsent(shard.id(), ShardTicker::new);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shards.values().forEach(shard -> shard.executor.shutdown());
+    }
+
+    private static final class ShardTicker {
+        private final ScheduledExecutorService executor;
+        private final AtomicBoolean tickPending = new AtomicBoolean();
+        private final AtomicInteger pendingArrivals = new AtomicInteger();
+        private volatile long lastTickStartedAt;
+
+        ShardTicker(String shardId) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("matchmaking-" + shardId + "-"));
+        }
+    }
 }
@@ -31,10 +31,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         try {
             String token = extractToken(request);
+            String playerId = token != null ? jwtTokenProvider.verifyAndGetPlayerId(token) : null;
             
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                String playerId = jwtTokenProvider.getPlayerIdFromToken(token);
-                
+            if (playerId != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(
                         playerId, 
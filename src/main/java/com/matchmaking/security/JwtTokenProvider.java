@@ -2,13 +2,21 @@ package com.matchmaking.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JWT token provider for authentication
@@ -23,15 +31,43 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    // 0 disables the verified-token cache
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // Time source for issuing, verifying and caching tokens
+    private Clock clock = Clock.systemUTC();
+
+    private SecretKey key;
+    private JwtParser parser;
+
+    // SHA-256 of a verified token -> its subject, until the token expires
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+            .verifyWith(key)
+            .clock(() -> new Date(clock.millis()))
+            .build();
+    }
+
     /**
      * Generate JWT token for a player
      */
     public String generateToken(String playerId) {
-        Date now = new Date();
+        Date now = new Date(clock.millis());
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
             .subject(playerId)
             .issuedAt(now)
@@ -41,37 +77,83 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Get player ID from JWT token
+     * Verify a token and return its player ID in one pass.
+     * Tokens verified before are answered from a bounded cache keyed by their
+     * SHA-256 digest until they expire, skipping signature and claims parsing.
+     *
+     * @return the player ID, or null if the token is invalid or expired
      */
-    public String getPlayerIdFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public String verifyAndGetPlayerId(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
 
-        Claims claims = Jwts.parser()
-            .verifyWith(key)
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+        ByteBuffer digest = digest(token);
+        long now = clock.millis();
+
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.playerId();
+            }
+            verifiedTokens.remove(digest, cached);
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
 
+        Date expiration = claims.getExpiration();
+        if (expiration != null && cacheMaxSize > 0) {
+            cache(digest, new VerifiedToken(claims.getSubject(), expiration.getTime()), now);
+        }
         return claims.getSubject();
     }
 
+    /**
+     * Get player ID from JWT token
+     */
+    public String getPlayerIdFromToken(String token) {
+        return parser.parseSignedClaims(token)
+            .getPayload()
+            .getSubject();
+    }
+
     /**
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            
-            Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token);
-            
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
+        return verifyAndGetPlayerId(token) != null;
+    }
+
+    private void cache(ByteBuffer digest, VerifiedToken verified, long now) {
+        if (verifiedTokens.size() >= cacheMaxSize) {
+            evict(now);
         }
-        
-        return false;
+        verifiedTokens.put(digest, verified);
+    }
+
+    /**
+     * Drop expired tokens, then arbitrary ones until the cache is back under 90% of its bound
+     */
+    private void evict(long now) {
+        verifiedTokens.values().removeIf(verified -> verified.expiresAt() <= now);
+
+        Iterator<ByteBuffer> keys = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() > cacheMaxSize * 9L / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record VerifiedToken(String playerId, long expiresAt) {
     }
 }
@@ -0,0 +1,90 @@
+package com.matchmaking.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Carries queue arrivals to the replica that owns their shard.
+ * A join can land on any replica, but in event tick mode only the owner's shard ticker
+ * counts arrivals. Joins for shards owned elsewhere are published on a Redis channel,
+ * and every replica re-raises the arrivals of the shards it owns as forwarded
+ * PlayerQueuedEvents. An arrival lost while ownership moves is still picked up by the
+ * owner's max-delay sweep.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArrivalRelayService {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ShardOwnershipService shardOwnershipService;
+    private final ShardLayout shardLayout;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${matchmaking.tick.mode:fixed}")
+    private String tickMode;
+
+    private RedisMessageListenerContainer container;
+
+    /**
+     * Listen for forwarded arrivals; fixed tick mode ignores arrivals, so it does not subscribe
+     */
+    @PostConstruct
+    public void start() {
+        if (!"event".equalsIgnoreCase(tickMode)) {
+            return;
+        }
+
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this::onArrival, new ChannelTopic(ShardKeys.ARRIVALS));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * Publish an arrival for the replica that owns its shard
+     */
+    public void forward(PlayerQueuedEvent event) {
+        try {
+            redisTemplate.convertAndSend(ShardKeys.ARRIVALS,
+                event.region() + '\n' + event.playerId() + '\n' + event.skillRating());
+        } catch (Exception e) {
+            log.warn("Could not forward arrival of {} in {}: {}", event.playerId(), event.region(), e.getMessage());
+        }
+    }
+
+    private void onArrival(Message message, byte[] pattern) {
+        Object value = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(value instanceof String arrival)) {
+            return;
+        }
+
+        String[] parts = arrival.split("\n", 3);
+        if (parts.length < 3) {
+            return;
+        }
+        int skillRating = Integer.parseInt(parts[2]);
+        if (shardOwnershipService.ownsShard(shardLayout.shardFor(parts[0], skillRating).id())) {
+            eventPublisher.publishEvent(new PlayerQueuedEvent(parts[0], parts[1], skillRating, true));
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.matchmaking.service;
+
+import java.util.Arrays;
+
+/**
+ * Candidate index over a queue snapshot, or over a subset of it.
+ * Players are addressed by their snapshot index, so a lower index is an older player.
+ * Each region's players sit in a treap ordered by skill rating, then index, and every
+ * node keeps the lowest available index in its subtree, so the tick finds the oldest
+ * remaining candidate inside a skill range in O(log n).
+ *
+ * The index can be kept up to date as the queue changes: add and delete insert and
+ * drop players for good in O(log n), while remove and restore only take a player out
+ * of the pool for the current tick, and restoreAll puts every such player back.
+ * CandidatePool keeps one index this way across a shard replica's ticks.
+ */
+public class CandidateIndex {
+
+    private static final int NONE = -1;
+    private static final int REMOVED = Integer.MAX_VALUE;
+
+    private static final byte ABSENT = 0;
+    private static final byte AVAILABLE = 1;
+    private static final byte TAKEN = 2;
+
+    private final QueueSnapshot snapshot;
+    private int[] roots = new int[0];
+    private int[] left;
+    private int[] right;
+    private int[] min;
+    private byte[] state;
+    private int[] taken = new int[16];
+    private int takenCount;
+    private int[] path = new int[64];
+    private int size;
+    private int remaining;
+
+    // Results of the last split
+    private int splitLeft;
+    private int splitRight;
+
+    private CandidateIndex(QueueSnapshot snapshot, int capacity) {
+        this.snapshot = snapshot;
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.min = new int[capacity];
+        this.state = new byte[capacity];
+    }
+
+    /**
+     * Build the index over the given snapshot indexes, which must be in ascending queue order.
+     * Callers leave out players who cannot be matched, e.g. players above their latency threshold.
+     */
+    public static CandidateIndex build(QueueSnapshot snapshot, int[] orders) {
+        // Sized up to the highest index only, so an empty tier over a large snapshot stays small
+        int highest = orders.length == 0 ? 0 : orders[orders.length - 1];
+        CandidateIndex index = new CandidateIndex(snapshot, Math.max(16, highest + 1));
+        index.ensureRegions();
+
+        int[] counts = new int[snapshot.regionCount()];
+        for (int order : orders) {
+            counts[snapshot.regionOrdinal(order)]++;
+        }
+
+        // Skill in the high half, index in the low half: one primitive sort
+        // orders a region by skill and keeps queue order among equal ratings
+        long[][] keys = new long[counts.length][];
+        int[] filled = new int[counts.length];
+        for (int region = 0; region < counts.length; region++) {
+            keys[region] = new long[counts[region]];
+        }
+        for (int order : orders) {
+            int region = snapshot.regionOrdinal(order);
+            keys[region][filled[region]++] = index.key(order);
+        }
+
+        for (int region = 0; region < keys.length; region++) {
+            Arrays.sort(keys[region]);
+            index.roots[region] = index.buildTreap(keys[region]);
+        }
+        index.size = orders.length;
+        index.remaining = orders.length;
+        return index;
+    }
+
+    /**
+     * Number of indexed players, removed for the tick or not
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of players still available as anchors or candidates
+     */
+    public int remaining() {
+        return remaining;
+    }
+
+    public QueueSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Whether a player is available as an anchor or candidate
+     */
+    public boolean contains(int index) {
+        return index < state.length && state[index] == AVAILABLE;
+    }
+
+    /**
+     * Whether a player is indexed, available or removed for the tick
+     */
+    public boolean indexed(int index) {
+        return index < state.length && state[index] != ABSENT;
+    }
+
+    /**
+     * Insert a player for good, e.g. one who joined after the index was built
+     */
+    public void add(int index) {
+        if (indexed(index)) {
+            return;
+        }
+        ensureCapacity(index + 1);
+        ensureRegions();
+
+        int region = snapshot.regionOrdinal(index);
+        left[index] = NONE;
+        right[index] = NONE;
+        state[index] = AVAILABLE;
+        pull(index);
+
+        split(roots[region], key(index));
+        int lower = splitLeft;
+        int upper = splitRight;
+        roots[region] = merge(merge(lower, index), upper);
+        size++;
+        remaining++;
+    }
+
+    /**
+     * Drop a player for good, e.g. one who left the queue or was matched
+     */
+    public void delete(int index) {
+        if (!indexed(index)) {
+            return;
+        }
+
+        int region = snapshot.regionOrdinal(index);
+        long key = key(index);
+        split(roots[region], key);
+        int lower = splitLeft;
+        split(splitRight, key + 1);
+        roots[region] = merge(lower, splitRight);
+
+        if (state[index] == AVAILABLE) {
+            remaining--;
+        }
+        state[index] = ABSENT;
+        size--;
+    }
+
+    /**
+     * Remove a player from the candidate pool for the current tick
+     */
+    public void remove(int index) {
+        if (contains(index)) {
+            state[index] = TAKEN;
+            remaining--;
+            if (takenCount == taken.length) {
+                taken = Arrays.copyOf(taken, takenCount * 2);
+            }
+            taken[takenCount++] = index;
+            refreshPath(index);
+        }
+    }
+
+    /**
+     * Put a previously removed player back into the candidate pool
+     */
+    public void restore(int index) {
+        if (indexed(index) && state[index] == TAKEN) {
+            state[index] = AVAILABLE;
+            remaining++;
+            refreshPath(index);
+        }
+    }
+
+    /**
+     * Put every player removed since the last call back into the candidate pool
+     */
+    public void restoreAll() {
+        for (int i = 0; i < takenCount; i++) {
+            restore(taken[i]);
+        }
+        takenCount = 0;
+    }
+
+    /**
+     * The oldest remaining player of any region, read off the region roots in O(regions)
+     *
+     * @return the player's snapshot index, or -1 if there is none
+     */
+    public int oldest() {
+        int found = REMOVED;
+        for (int root : roots) {
+            found = Math.min(found, minOf(root));
+        }
+        return found == REMOVED ? -1 : found;
+    }
+
+    /**
+     * The oldest remaining player of a region whose skill rating lies in [minSkill, maxSkill]
+     *
+     * @return the player's snapshot index, or -1 if there is none
+     */
+    public int peekOldest(int regionOrdinal, int minSkill, int maxSkill) {
+        if (regionOrdinal >= roots.length || minSkill > maxSkill) {
+            return -1;
+        }
+        long to = maxSkill == Integer.MAX_VALUE ? Long.MAX_VALUE : ((long) maxSkill + 1) << 32;
+        int found = rangeMin(roots[regionOrdinal], (long) minSkill << 32, to);
+        return found == REMOVED ? -1 : found;
+    }
+
+    /**
+     * Find and remove the oldest remaining player of a region whose skill rating lies in [minSkill, maxSkill]
+     *
+     * @return the player's snapshot index, or -1 if there is none
+     */
+    public int pollOldest(int regionOrdinal, int minSkill, int maxSkill) {
+        int found = peekOldest(regionOrdinal, minSkill, maxSkill);
+        if (found >= 0) {
+            remove(found);
+        }
+        return found;
+    }
+
+    private long key(int index) {
+        return ((long) snapshot.skill(index) << 32) | index;
+    }
+
+    /**
+     * Heap priority of a node, a fixed hash of its index so the tree shape is reproducible
+     */
+    private static int priority(int index) {
+        int h = index * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private static boolean above(int a, int b) {
+        int pa = priority(a);
+        int pb = priority(b);
+        return pa > pb || (pa == pb && a < b);
+    }
+
+    private int minOf(int node) {
+        return node == NONE ? REMOVED : min[node];
+    }
+
+    private void pull(int node) {
+        int self = state[node] == AVAILABLE ? node : REMOVED;
+        min[node] = Math.min(self, Math.min(minOf(left[node]), minOf(right[node])));
+    }
+
+    /**
+     * Treap of keys sorted ascending, built in one pass with a stack of the right spine
+     */
+    private int buildTreap(long[] keys) {
+        int[] spine = new int[keys.length];
+        int top = 0;
+        for (long key : keys) {
+            int node = (int) key;
+            state[node] = AVAILABLE;
+            right[node] = NONE;
+            int last = NONE;
+            while (top > 0 && above(node, spine[top - 1])) {
+                last = spine[--top];
+            }
+            left[node] = last;
+            if (top > 0) {
+                right[spine[top - 1]] = node;
+            }
+            spine[top++] = node;
+        }
+        if (top == 0) {
+            return NONE;
+        }
+        pullAll(spine[0]);
+        return spine[0];
+    }
+
+    private void pullAll(int node) {
+        if (left[node] != NONE) {
+            pullAll(left[node]);
+        }
+        if (right[node] != NONE) {
+            pullAll(right[node]);
+        }
+        pull(node);
+    }
+
+    /**
+     * Split a treap into keys below {@code key} (splitLeft) and the rest (splitRight)
+     */
+    private void split(int node, long key) {
+        if (node == NONE) {
+            splitLeft = NONE;
+            splitRight = NONE;
+            return;
+        }
+        if (key(node) < key) {
+            split(right[node], key);
+            right[node] = splitLeft;
+            pull(node);
+            splitLeft = node;
+        } else {
+            split(left[node], key);
+            left[node] = splitRight;
+            pull(node);
+            splitRight = node;
+        }
+    }
+
+    /**
+     * Merge two treaps where every key of {@code a} is below every key of {@code b}
+     */
+    private int merge(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        if (above(a, b)) {
+            right[a] = merge(right[a], b);
+            pull(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        pull(b);
+        return b;
+    }
+
+    /**
+     * Lowest available index among keys in [from, to), walking the two boundary paths
+     */
+    private int rangeMin(int node, long from, long to) {
+        while (node != NONE) {
+            long key = key(node);
+            if (key < from) {
+                node = right[node];
+            } else if (key >= to) {
+                node = left[node];
+            } else {
+                break;
+            }
+        }
+        if (node == NONE) {
+            return REMOVED;
+        }
+
+        int result = state[node] == AVAILABLE ? node : REMOVED;
+        for (int n = left[node]; n != NONE; ) {
+            if (key(n) >= from) {
+                result = Math.min(result, Math.min(state[n] == AVAILABLE ? n : REMOVED, minOf(right[n])));
+                n = left[n];
+            } else {
+                n = right[n];
+            }
+        }
+        for (int n = right[node]; n != NONE; ) {
+            if (key(n) < to) {
+                result = Math.min(result, Math.min(state[n] == AVAILABLE ? n : REMOVED, minOf(left[n])));
+                n = right[n];
+            } else {
+                n = left[n];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recompute the subtree minimums from a node up to its region's root
+     */
+    private void refreshPath(int index) {
+        long key = key(index);
+        int depth = 0;
+        for (int node = roots[snapshot.regionOrdinal(index)]; node != index; ) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = node;
+            node = key < key(node) ? left[node] : right[node];
+        }
+        pull(index);
+        while (depth > 0) {
+            pull(path[--depth]);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > state.length) {
+            int grown = Math.max(capacity, state.length * 2);
+            left = Arrays.copyOf(left, grown);
+            right = Arrays.copyOf(right, grown);
+            min = Arrays.copyOf(min, grown);
+            state = Arrays.copyOf(state, grown);
+        }
+    }
+
+    private void ensureRegions() {
+        if (roots.length < snapshot.regionCount()) {
+            int from = roots.length;
+            roots = Arrays.copyOf(roots, snapshot.regionCount());
+            Arrays.fill(roots, from, roots.length, NONE);
+        }
+    }
+}
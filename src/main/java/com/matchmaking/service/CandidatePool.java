@@ -0,0 +1,207 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A shard's queue kept ready for pairing across ticks: a snapshot that grows in place
+ * and one candidate index per window tier over it, updated per arrival and departure
+ * in O(log n). A player is indexed in the tier of their current skill window once
+ * they are within their latency threshold. The next time either changes is kept in a
+ * heap, and queue records are expired from a heap ordered by join time, so a tick
+ * only touches the players whose state actually changed.
+ * Departed players leave holes in the snapshot, which is compacted once holes
+ * outnumber the players still queued.
+ *
+ * Not thread-safe: the owning shard replica serializes access.
+ */
+public final class CandidatePool {
+
+    private static final int MIN_COMPACTION_HOLES = 1024;
+    private static final byte UNINDEXED = -1;
+
+    private final MatchmakingAlgorithm algorithm;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final CandidateIndex[] tiers = new CandidateIndex[MatchmakingAlgorithm.TIERS];
+    private QueueSnapshot snapshot;
+    private long cappedAfterMillis;
+    private long[] eligibleAt;
+    private long[] changeAt;
+    private byte[] tier;
+    private PriorityQueue<Integer> byQueuedAt;
+    private PriorityQueue<Integer> byChangeAt;
+    private int holes;
+
+    CandidatePool(MatchmakingAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        clear(System.currentTimeMillis());
+    }
+
+    /**
+     * Replace the pool's players, in queue order
+     */
+    public void reset(List<Player> queuedPlayers) {
+        clear(snapshot.getTakenAtMillis());
+        queuedPlayers.forEach(this::add);
+    }
+
+    /**
+     * Append a player who joined the queue
+     *
+     * @return false if the player is already pooled
+     */
+    public boolean add(Player player) {
+        if (indexes.containsKey(player.getPlayerId())) {
+            return false;
+        }
+
+        int added = snapshot.append(player, System.currentTimeMillis());
+        indexes.put(player.getPlayerId(), added);
+        if (added == tier.length) {
+            eligibleAt = Arrays.copyOf(eligibleAt, added * 2);
+            changeAt = Arrays.copyOf(changeAt, added * 2);
+            tier = Arrays.copyOf(tier, added * 2);
+        }
+        eligibleAt[added] = algorithm.eligibleAtMillis(snapshot.latency(added), snapshot.queuedAtMillis(added));
+        tier[added] = UNINDEXED;
+        byQueuedAt.add(added);
+        place(added);
+        return true;
+    }
+
+    /**
+     * Drop a player who left the queue or was matched
+     *
+     * @return false if the player was not pooled
+     */
+    public boolean remove(String playerId) {
+        Integer removed = indexes.remove(playerId);
+        if (removed == null) {
+            return false;
+        }
+
+        if (tier[removed] != UNINDEXED) {
+            tiers[tier[removed]].delete(removed);
+        }
+        snapshot.clear(removed);
+        holes++;
+        if (holes > Math.max(MIN_COMPACTION_HOLES, indexes.size())) {
+            reset(players());
+        }
+        return true;
+    }
+
+    /**
+     * Drop players who joined before the given time, oldest first
+     */
+    public void removeQueuedBefore(long queuedBeforeMillis) {
+        while (!byQueuedAt.isEmpty() && snapshot.queuedAtMillis(byQueuedAt.peek()) < queuedBeforeMillis) {
+            Player player = snapshot.player(byQueuedAt.poll());
+            if (player != null) {
+                remove(player.getPlayerId());
+            }
+        }
+    }
+
+    /**
+     * Start a tick at the given time: move the players whose latency threshold or skill
+     * window has widened since into their tier
+     */
+    public void advanceTo(long now) {
+        snapshot.advanceTo(now);
+        while (!byChangeAt.isEmpty() && changeAt[byChangeAt.peek()] <= now) {
+            int changed = byChangeAt.poll();
+            if (snapshot.player(changed) != null) {
+                place(changed);
+            }
+        }
+    }
+
+    /**
+     * Number of pooled players, whether they can be paired yet or not
+     */
+    public int size() {
+        return indexes.size();
+    }
+
+    /**
+     * Pooled players in queue order
+     */
+    public List<Player> players() {
+        List<Player> players = new ArrayList<>(indexes.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.player(i) != null) {
+                players.add(snapshot.player(i));
+            }
+        }
+        return players;
+    }
+
+    /**
+     * The tier a snapshot index is indexed in, or -1 while the player is above their latency threshold
+     */
+    int tierOf(int index) {
+        return tier[index];
+    }
+
+    QueueSnapshot snapshot() {
+        return snapshot;
+    }
+
+    CandidateIndex[] tiers() {
+        return tiers;
+    }
+
+    /**
+     * Index a player in the tier they belong to at the snapshot's time, and schedule their next change
+     */
+    private void place(int index) {
+        long now = snapshot.getTakenAtMillis();
+        long waited = now - snapshot.queuedAtMillis(index);
+        byte placed = eligibleAt[index] <= now
+            ? (byte) algorithm.tierOf(waited, cappedAfterMillis)
+            : UNINDEXED;
+
+        if (placed != tier[index]) {
+            if (tier[index] != UNINDEXED) {
+                tiers[tier[index]].delete(index);
+            }
+            if (placed != UNINDEXED) {
+                tiers[placed].add(index);
+            }
+            tier[index] = placed;
+        }
+
+        long leavesAfter = placed == UNINDEXED
+            ? Long.MAX_VALUE
+            : algorithm.leavesTierAfterMillis(placed, cappedAfterMillis);
+        changeAt[index] = placed == UNINDEXED
+            ? eligibleAt[index]
+            : leavesAfter == Long.MAX_VALUE ? Long.MAX_VALUE : snapshot.queuedAtMillis(index) + leavesAfter;
+        if (changeAt[index] != Long.MAX_VALUE) {
+            byChangeAt.add(index);
+        }
+    }
+
+    private void clear(long now) {
+        snapshot = QueueSnapshot.of(List.of(), now);
+        for (int i = 0; i < tiers.length; i++) {
+            tiers[i] = CandidateIndex.build(snapshot, new int[0]);
+        }
+        cappedAfterMillis = algorithm.skillCappedAfterMillis();
+        eligibleAt = new long[16];
+        changeAt = new long[16];
+        tier = new byte[16];
+        byQueuedAt = new PriorityQueue<>(Comparator.comparingLong(snapshot::queuedAtMillis));
+        byChangeAt = new PriorityQueue<>(Comparator.comparingLong(i -> changeAt[i]));
+        indexes.clear();
+        holes = 0;
+    }
+}
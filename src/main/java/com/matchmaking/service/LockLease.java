@@ -0,0 +1,12 @@
+package com.matchmaking.service;
+
+/**
+ * A held distributed lock
+ *
+ * @param lockName     the name the lock was acquired under
+ * @param owner        unique token of this acquisition, required to renew or release it
+ * @param fencingToken increases with every acquisition of the lock, so writes can reject stale holders
+ * @param fenceKey     Redis key of the lock's fencing counter
+ */
+public record LockLease(String lockName, String owner, long fencingToken, String fenceKey) {
+}
@@ -0,0 +1,190 @@
+package com.matchmaking.service;
+
+import com.matchmaking.dto.ApiResponse;
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes matches to subscribed players over Server-Sent Events.
+ * Each node reads the match stream of every region shard and fans every committed
+ * match out to the local subscribers of its players, so waiting clients cost no Redis reads.
+ * The listener container runs one blocking read per region shard rather than one XREAD
+ * over all of them: each shard's stream hashes to its own slot, and a multi-key XREAD
+ * cannot span slots on a Redis Cluster. Reads therefore grow with regions, not subscribers.
+ * Shards that appear later are picked up every matchmaking.notifications.region-refresh-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchNotificationService {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final QueueService queueService;
+
+    @Value("${matchmaking.notifications.sse-timeout-ms:300000}")
+    private long sseTimeoutMs;
+
+    @Value("${matchmaking.notifications.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
+
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<String> readRegions = ConcurrentHashMap.newKeySet();
+
+    private StreamMessageListenerContainer<String, MapRecord<String, String, byte[]>> container;
+
+    // Match stream ids are millisecond timestamps, so reads start at this node's startup
+    private ReadOffset startOffset;
+
+    @PostConstruct
+    public void start() {
+        StreamMessageListenerContainerOptions<String, MapRecord<String, String, byte[]>> options =
+            StreamMessageListenerContainerOptions.builder()
+                .pollTimeout(Duration.ofMillis(pollTimeoutMs))
+                .<String, MapRecord<String, String, byte[]>>keySerializer(RedisSerializer.string())
+                .<String, byte[]>hashKeySerializer(RedisSerializer.string())
+                .<String, byte[]>hashValueSerializer(RedisSerializer.byteArray())
+                .build();
+
+        startOffset = ReadOffset.from(System.currentTimeMillis() + "-0");
+        container = StreamMessageListenerContainer.create(connectionFactory, options);
+        refreshRegions();
+        container.start();
+    }
+
+    /**
+     * Start reading the match streams of region shards created since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${matchmaking.notifications.region-refresh-ms:5000}")
+    public void refreshRegions() {
+        if (container == null) {
+            return;
+        }
+        
+        for (String region : queueService.getRegions()) {
+            if (readRegions.add(region)) {
+                String stream = ShardKeys.matchStream(region);
+                container.register(
+                    StreamReadRequest.builder(StreamOffset.create(stream, startOffset))
+                        .cancelOnError(e -> false)
+                        .errorHandler(e -> log.warn("Error reading match stream {}: {}", stream, e.getMessage()))
+                        .build(),
+                    this::onMatchRecord);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    /**
+     * Subscribe a player to their match notification.
+     * A match committed before the subscription is sent right away, unless the player
+     * is queued again: a stored match then belongs to an earlier queue entry.
+     */
+    public SseEmitter subscribe(String playerId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        // Added inside compute, so a concurrent removeEmitter cannot drop the list it goes into
+        subscribers.compute(playerId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+
+        Runnable unsubscribe = () -> removeEmitter(playerId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        // Registered first, so a match committed from here on is pushed by the stream reader
+        if (!queueService.isPlayerInQueue(playerId)) {
+            Match match = queueService.getMatch(playerId);
+            if (match != null) {
+                send(playerId, emitter, match);
+            }
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Number of open subscriptions on this node
+     */
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void onMatchRecord(MapRecord<String, String, byte[]> record) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        byte[] payload = record.getValue().get("match");
+        if (payload == null) {
+            log.debug("Match stream entry {} has no match payload", record.getId());
+            return;
+        }
+
+        Object value = redisTemplate.getValueSerializer().deserialize(payload);
+        if (!(value instanceof Match match) || match.getPlayers() == null) {
+            return;
+        }
+
+        for (Player player : match.getPlayers()) {
+            List<SseEmitter> emitters = subscribers.get(player.getPlayerId());
+            if (emitters != null) {
+                emitters.forEach(emitter -> send(player.getPlayerId(), emitter, match));
+            }
+        }
+    }
+
+    private void send(String playerId, SseEmitter emitter, Match match) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name("match")
+                .id(match.getMatchId())
+                .data(ApiResponse.success(match, "Match found"), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not notify player {}: {}", playerId, e.getMessage());
+            removeEmitter(playerId, emitter);
+        }
+    }
+
+    private void removeEmitter(String playerId, SseEmitter emitter) {
+        subscribers.computeIfPresent(playerId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+
+/**
+ * Unit of tick work: a whole region, or one skill band of a region when
+ * matchmaking.shards.skill-band-edges is set.
+ * A band owns the players rated in [minSkill, maxSkill) and may also take partners
+ * rated up to reach above its band, so pairs across a band edge still form. A player
+ * taken by two band ticks at once is only committed once, see commit_matches.lua.
+ * All bands of a region share the region's queue keys and replica.
+ *
+ * @param region   the region queue the shard ticks
+ * @param band     index of the skill band, or -1 if the shard is the whole region
+ * @param minSkill lowest skill rating the shard owns
+ * @param maxSkill skill rating just above the highest one the shard owns
+ * @param reach    how far above maxSkill the shard may take partners
+ */
+public record MatchShard(String region, int band, int minSkill, int maxSkill, int reach) {
+
+    public static MatchShard whole(String region) {
+        return new MatchShard(region, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Id used for ownership, tick executors and logs; a whole region keeps the region name
+     */
+    public String id() {
+        return band < 0 ? region : region + "/" + band;
+    }
+
+    public boolean isBanded() {
+        return band >= 0;
+    }
+
+    /**
+     * Whether the player falls in this shard's band
+     */
+    public boolean owns(Player player) {
+        return player.getSkillRating() >= minSkill && player.getSkillRating() < maxSkill;
+    }
+
+    /**
+     * Whether the player can be paired by this shard, as one of its own or as a partner above the band
+     */
+    public boolean reaches(Player player) {
+        return player.getSkillRating() >= minSkill && (long) player.getSkillRating() < (long) maxSkill + reach;
+    }
+}
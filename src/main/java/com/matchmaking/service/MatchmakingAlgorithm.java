@@ -1,11 +1,19 @@
 package com.matchmaking.service;
 
+import com.matchmaking.metrics.TickProfile;
+import com.matchmaking.model.Match;
 import com.matchmaking.model.Player;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Core matchmaking algorithm implementing skill-based and latency-aware matching
@@ -14,12 +22,51 @@ import java.util.List;
 @Component
 public class MatchmakingAlgorithm {
 
+    /**
+     * Candidate tiers by skill window: players still in their grace period share
+     * maxSkillGap, players whose window has stopped widening share its cap, and only
+     * players in between carry a window of their own
+     */
+    static final int BASE_TIER = 0;
+    static final int EXPANDING_TIER = 1;
+    static final int CAPPED_TIER = 2;
+    static final int TIERS = 3;
+
     @Value("${matchmaking.skill.max-gap:200}")
     private int maxSkillGap;
 
     @Value("${matchmaking.latency.max-threshold:100}")
     private int maxLatencyThreshold;
 
+    @Value("${matchmaking.expansion.grace-ms:5000}")
+    private long expansionGraceMs;
+
+    @Value("${matchmaking.skill.expansion-per-second:0}")
+    private double skillExpansionPerSecond;
+
+    @Value("${matchmaking.skill.max-expanded-gap:0}")
+    private int maxExpandedSkillGap;
+
+    @Value("${matchmaking.latency.expansion-per-second:0}")
+    private double latencyExpansionPerSecond;
+
+    @Value("${matchmaking.latency.max-expanded-threshold:0}")
+    private int maxExpandedLatencyThreshold;
+
+    @Value("${matchmaking.match.pairing:greedy}")
+    private String pairingMode;
+
+    @Value("${matchmaking.pairing.parallel.enabled:false}")
+    private boolean parallelPairing;
+
+    @Value("${matchmaking.pairing.parallel.threads:0}")
+    private int parallelThreads;
+
+    @Value("${matchmaking.pairing.parallel.min-band-size:5000}")
+    private int minBandSize;
+
+    private volatile ForkJoinPool pairingPool;
+
     /**
      * Check if two players are compatible for matchmaking
      * Based on skill rating (Elo/MMR) and network latency
@@ -59,6 +106,591 @@ public class MatchmakingAlgorithm {
         return true;
     }
 
+    /**
+     * Pair compatibility on snapshot indexes: skill gap, latency threshold and
+     * region ordinal, without touching the Player objects. The skill gap may be as wide as
+     * the search window of whichever player has waited longer, and each player must be
+     * within their own latency threshold.
+     */
+    public boolean arePlayersCompatible(QueueSnapshot snapshot, int player1, int player2) {
+        return Math.abs(snapshot.skill(player1) - snapshot.skill(player2))
+                <= Math.max(skillWindow(snapshot, player1), skillWindow(snapshot, player2))
+            && isEligible(snapshot, player1)
+            && isEligible(snapshot, player2)
+            && snapshot.regionOrdinal(player1) == snapshot.regionOrdinal(player2);
+    }
+
+    /**
+     * Skill gap a player accepts after waiting in the queue: maxSkillGap during the grace
+     * period, then widening linearly by matchmaking.skill.expansion-per-second up to
+     * matchmaking.skill.max-expanded-gap. Pairing only computes it for players of the
+     * expanding tier; the other tiers share one window each.
+     */
+    int skillWindow(QueueSnapshot snapshot, int index) {
+        return widen(maxSkillGap, skillExpansionPerSecond, maxExpandedSkillGap, waitedMillis(snapshot, index));
+    }
+
+    /**
+     * Latency threshold a player accepts after waiting, widening on the same curve as the skill window
+     */
+    int latencyThreshold(QueueSnapshot snapshot, int index) {
+        return widen(maxLatencyThreshold, latencyExpansionPerSecond, maxExpandedLatencyThreshold,
+            waitedMillis(snapshot, index));
+    }
+
+    /**
+     * When a player first fits within their own latency threshold: Long.MIN_VALUE if they
+     * always do, Long.MAX_VALUE if their threshold never widens far enough
+     */
+    long eligibleAtMillis(int latency, long queuedAtMillis) {
+        if (latency <= maxLatencyThreshold) {
+            return Long.MIN_VALUE;
+        }
+        if (latencyExpansionPerSecond <= 0 || latency > Math.max(maxLatencyThreshold, maxExpandedLatencyThreshold)) {
+            return Long.MAX_VALUE;
+        }
+        return queuedAtMillis
+            + waitToReach(maxLatencyThreshold, latencyExpansionPerSecond, maxExpandedLatencyThreshold, latency);
+    }
+
+    /**
+     * Wait after which a player's skill window has stopped at its cap, or Long.MAX_VALUE
+     * if skill windows never widen
+     */
+    long skillCappedAfterMillis() {
+        if (skillExpansionPerSecond <= 0 || maxExpandedSkillGap <= maxSkillGap) {
+            return Long.MAX_VALUE;
+        }
+        return waitToReach(maxSkillGap, skillExpansionPerSecond, maxExpandedSkillGap, maxExpandedSkillGap);
+    }
+
+    /**
+     * The candidate tier of a player who has waited the given time
+     *
+     * @param cappedAfterMillis {@link #skillCappedAfterMillis()}, computed once per tick or pool
+     */
+    int tierOf(long waitedMillis, long cappedAfterMillis) {
+        if (waitedMillis >= cappedAfterMillis) {
+            return CAPPED_TIER;
+        }
+        if (cappedAfterMillis == Long.MAX_VALUE || waitedMillis <= expansionGraceMs) {
+            return BASE_TIER;
+        }
+        return EXPANDING_TIER;
+    }
+
+    /**
+     * Wait after which a player of the given tier moves to the next one, or Long.MAX_VALUE if they stay
+     */
+    long leavesTierAfterMillis(int tier, long cappedAfterMillis) {
+        return switch (tier) {
+            case BASE_TIER -> cappedAfterMillis == Long.MAX_VALUE ? Long.MAX_VALUE : expansionGraceMs + 1;
+            case EXPANDING_TIER -> cappedAfterMillis;
+            default -> Long.MAX_VALUE;
+        };
+    }
+
+    /**
+     * Skill window of a player in a tier, computed per player only in the expanding tier
+     */
+    private int tierWindow(QueueSnapshot snapshot, int tier, int index) {
+        return switch (tier) {
+            case BASE_TIER -> maxSkillGap;
+            case CAPPED_TIER -> Math.max(maxSkillGap, maxExpandedSkillGap);
+            default -> skillWindow(snapshot, index);
+        };
+    }
+
+    private boolean isEligible(QueueSnapshot snapshot, int index) {
+        return snapshot.latency(index) <= latencyThreshold(snapshot, index);
+    }
+
+    private long waitedMillis(QueueSnapshot snapshot, int index) {
+        return snapshot.getTakenAtMillis() - snapshot.queuedAtMillis(index);
+    }
+
+    private int widen(int base, double perSecond, int cap, long waitedMillis) {
+        long expandingFor = waitedMillis - expansionGraceMs;
+        if (expandingFor <= 0 || perSecond <= 0) {
+            return base;
+        }
+        double widened = base + expandingFor * perSecond / 1000.0;
+        return (int) Math.min(widened, Math.max(base, cap));
+    }
+
+    /**
+     * Shortest wait after which a widening curve reaches {@code target}, which must lie
+     * above {@code base} and within the cap, with a positive rate
+     */
+    private long waitToReach(int base, double perSecond, int cap, int target) {
+        long waited = expansionGraceMs + (long) Math.ceil((target - base) * 1000.0 / perSecond);
+        // Settle floating-point rounding against the curve itself
+        while (widen(base, perSecond, cap, waited) < target) {
+            waited++;
+        }
+        while (widen(base, perSecond, cap, waited - 1) >= target) {
+            waited--;
+        }
+        return waited;
+    }
+
+    /**
+     * Group queued players into matches of the given size.
+     * Same greedy semantics as scanning the queue in order: the oldest remaining player
+     * anchors a match and takes the oldest compatible candidates, and an anchor that
+     * cannot fill a match is dropped for the rest of the tick. Candidates come from
+     * skill-sorted indexes, one per window tier, instead of a linear scan.
+     */
+    public List<List<Player>> findMatches(List<Player> queuedPlayers, int matchSize) {
+        return findMatches(QueueSnapshot.of(queuedPlayers), matchSize);
+    }
+
+    /**
+     * Group a columnar queue snapshot into matches of the given size.
+     * Pairing reads only the snapshot's primitive arrays; Player objects are
+     * looked up once per player that ends up in a match. Large queues are split
+     * into skill bands paired in parallel when matchmaking.pairing.parallel.enabled is set,
+     * and 1v1 ticks pair optimally instead of greedily with matchmaking.match.pairing=optimal.
+     */
+    public List<List<Player>> findMatches(QueueSnapshot snapshot, int matchSize) {
+        Grouping grouping;
+        if (matchSize == 2 && "optimal".equalsIgnoreCase(pairingMode)) {
+            grouping = pairOptimally(snapshot);
+        } else {
+            int[][] bands = parallelPairing ? skillBands(snapshot) : null;
+            grouping = bands != null && bands.length > 1
+                ? groupInBands(snapshot, bands, matchSize)
+                : group(snapshot, tiers(snapshot, eligibleOrders(snapshot)), matchSize);
+        }
+
+        TickProfile.addPairingWork(grouping.candidatesExamined(), grouping.compatibilityChecks());
+        List<List<Player>> matches = new ArrayList<>(grouping.groups().size());
+        for (int[] group : grouping.groups()) {
+            matches.add(snapshot.players(group, group.length));
+        }
+        return matches;
+    }
+
+    /**
+     * Group the players of a persistent candidate pool into matches of the given size.
+     * The pool's tier indexes are already up to date, so greedy pairing starts right away and
+     * its cost follows the players it visits rather than the size of the queue. Players
+     * taken during the tick are put back afterwards; matched players leave the pool
+     * once their match is committed. Optimal pairing and parallel skill bands still pair
+     * a snapshot copied from the pool.
+     */
+    public List<List<Player>> findMatches(CandidatePool pool, int matchSize) {
+        long now = System.currentTimeMillis();
+        pool.advanceTo(now);
+        if ((matchSize == 2 && "optimal".equalsIgnoreCase(pairingMode))
+                || (parallelPairing && pool.size() >= 2 * minBandSize)) {
+            return findMatches(QueueSnapshot.of(pool.players(), now), matchSize);
+        }
+
+        QueueSnapshot snapshot = pool.snapshot();
+        CandidateIndex[] tiers = pool.tiers();
+        try {
+            Grouping grouping = group(snapshot, tiers, matchSize);
+            TickProfile.addPairingWork(grouping.candidatesExamined(), grouping.compatibilityChecks());
+            List<List<Player>> matches = new ArrayList<>(grouping.groups().size());
+            for (int[] group : grouping.groups()) {
+                matches.add(snapshot.players(group, group.length));
+            }
+            return matches;
+        } finally {
+            for (CandidateIndex tier : tiers) {
+                tier.restoreAll();
+            }
+        }
+    }
+
+    /**
+     * An empty candidate pool paired with this algorithm's rules, for a shard replica to keep
+     */
+    public CandidatePool newPool() {
+        return new CandidatePool(this);
+    }
+
+    /**
+     * 1v1 pairing that forms the most matches a tick allows and, among those, minimizes
+     * the total skill difference. On a skill line some such pairing only ever pairs
+     * neighbours of the skill-sorted order (crossing or nested pairs can be uncrossed
+     * without breaking the gap or raising the cost), so a linear DP over each region's
+     * sorted players is exact and the tick stays O(n log n) for the sort. Latency does
+     * not enter the cost: a match's latency score is its players' average, so it depends
+     * only on who is matched, not on who they are paired with. Once search windows have
+     * widened the gap limit differs per pair, and the neighbour DP is then a close
+     * approximation rather than exact.
+     */
+    private Grouping pairOptimally(QueueSnapshot snapshot) {
+        List<int[]> groups = new ArrayList<>();
+        int leftoverCount = 0;
+        int[] leftover = new int[snapshot.size()];
+        int compatibilityChecks = 0;
+
+        for (long[] keys : skillSortedKeys(snapshot)) {
+            int n = keys.length;
+            // Best (matches, cost) over the first i players, and whether player i-1 pairs with i-2
+            int[] count = new int[n + 1];
+            long[] cost = new long[n + 1];
+            boolean[] paired = new boolean[n + 1];
+
+            for (int i = 2; i <= n; i++) {
+                count[i] = count[i - 1];
+                cost[i] = cost[i - 1];
+                int gap = (int) (keys[i - 1] >> 32) - (int) (keys[i - 2] >> 32);
+                int window = Math.max(skillWindow(snapshot, (int) keys[i - 1]), skillWindow(snapshot, (int) keys[i - 2]));
+                compatibilityChecks++;
+                if (gap <= window) {
+                    int pairedCount = count[i - 2] + 1;
+                    long pairedCost = cost[i - 2] + gap;
+                    if (pairedCount > count[i] || (pairedCount == count[i] && pairedCost < cost[i])) {
+                        count[i] = pairedCount;
+                        cost[i] = pairedCost;
+                        paired[i] = true;
+                    }
+                }
+            }
+
+            for (int i = n; i > 0; ) {
+                if (paired[i]) {
+                    int first = (int) keys[i - 2];
+                    int second = (int) keys[i - 1];
+                    groups.add(first < second ? new int[]{first, second} : new int[]{second, first});
+                    i -= 2;
+                } else {
+                    leftover[leftoverCount++] = (int) keys[i - 1];
+                    i--;
+                }
+            }
+        }
+
+        // Commit oldest players first, as a greedy tick would
+        groups.sort(Comparator.comparingInt(group -> group[0]));
+        int[] unmatched = Arrays.copyOf(leftover, leftoverCount);
+        Arrays.sort(unmatched);
+        return new Grouping(groups, unmatched, groups.size() * 2, compatibilityChecks);
+    }
+
+    /**
+     * Greedy grouping over candidate tiers: the oldest remaining player anchors a match
+     * and takes the oldest compatible candidates of any tier. Anchors are read off the
+     * tiers, so the pass never walks the snapshot itself. A player's window comes from
+     * their tier, so a few long-waiting players only widen their own searches.
+     */
+    private Grouping group(QueueSnapshot snapshot, CandidateIndex[] tiers, int matchSize) {
+        List<int[]> groups = new ArrayList<>();
+        int[] picked = new int[matchSize];
+        int[] pickedTiers = new int[matchSize];
+        int[] unfilled = new int[16];
+        int unfilledCount = 0;
+        int candidatesExamined = 0;
+        int compatibilityChecks = 0;
+
+        while (remaining(tiers) >= matchSize) {
+            int anchorTier = oldestTier(tiers);
+            int anchor = tiers[anchorTier].oldest();
+            tiers[anchorTier].remove(anchor);
+            picked[0] = anchor;
+
+            // Two players may be as far apart as the wider of their search windows.
+            // Candidates are taken oldest first, so each one has waited no longer than the
+            // members before it and the earlier member's window is the wider one: a new
+            // candidate must lie within every member's own window, and the candidate
+            // range is the intersection of those windows
+            int window = tierWindow(snapshot, anchorTier, anchor);
+            int anchorSkill = snapshot.skill(anchor);
+            int region = snapshot.regionOrdinal(anchor);
+            int minSkill = anchorSkill - window;
+            int maxSkill = anchorSkill + window;
+            int found = 1;
+
+            while (found < matchSize) {
+                int candidate = -1;
+                int candidateTier = -1;
+                for (int tier = 0; tier < tiers.length; tier++) {
+                    if (tiers[tier].remaining() == 0) {
+                        continue;
+                    }
+                    int oldest = tiers[tier].peekOldest(region, minSkill, maxSkill);
+                    if (oldest >= 0 && (candidate < 0 || oldest < candidate)) {
+                        candidate = oldest;
+                        candidateTier = tier;
+                    }
+                }
+                compatibilityChecks++;
+                if (candidate < 0) {
+                    break;
+                }
+                candidatesExamined++;
+                tiers[candidateTier].remove(candidate);
+                picked[found] = candidate;
+                pickedTiers[found++] = candidateTier;
+                int skill = snapshot.skill(candidate);
+                int candidateWindow = tierWindow(snapshot, candidateTier, candidate);
+                minSkill = Math.max(minSkill, skill - candidateWindow);
+                maxSkill = Math.min(maxSkill, skill + candidateWindow);
+            }
+
+            if (found == matchSize) {
+                groups.add(Arrays.copyOf(picked, matchSize));
+            } else {
+                // Can't fill a match with this anchor, release its candidates
+                for (int i = 1; i < found; i++) {
+                    tiers[pickedTiers[i]].restore(picked[i]);
+                }
+                if (unfilledCount == unfilled.length) {
+                    unfilled = Arrays.copyOf(unfilled, unfilledCount * 2);
+                }
+                unfilled[unfilledCount++] = anchor;
+            }
+        }
+
+        // Players this pass left unmatched: the anchors that could not fill a match,
+        // plus the few still available when too few were left to fill one, in queue order
+        int[] leftover = Arrays.copyOf(unfilled, unfilledCount + remaining(tiers));
+        for (int i = unfilledCount; i < leftover.length; i++) {
+            int tier = oldestTier(tiers);
+            leftover[i] = tiers[tier].oldest();
+            tiers[tier].remove(leftover[i]);
+        }
+        Arrays.sort(leftover);
+
+        return new Grouping(groups, leftover, candidatesExamined, compatibilityChecks);
+    }
+
+    /**
+     * Candidate tiers over the given snapshot indexes, which must be in ascending queue order
+     */
+    private CandidateIndex[] tiers(QueueSnapshot snapshot, int[] orders) {
+        long cappedAfter = skillCappedAfterMillis();
+        int[][] tierOrders = new int[TIERS][orders.length];
+        int[] counts = new int[TIERS];
+        for (int order : orders) {
+            int tier = tierOf(waitedMillis(snapshot, order), cappedAfter);
+            tierOrders[tier][counts[tier]++] = order;
+        }
+
+        CandidateIndex[] tiers = new CandidateIndex[TIERS];
+        for (int tier = 0; tier < TIERS; tier++) {
+            tiers[tier] = CandidateIndex.build(snapshot, Arrays.copyOf(tierOrders[tier], counts[tier]));
+        }
+        return tiers;
+    }
+
+    private static int remaining(CandidateIndex[] tiers) {
+        int remaining = 0;
+        for (CandidateIndex tier : tiers) {
+            remaining += tier.remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * The tier holding the oldest remaining player; callers make sure one remains
+     */
+    private static int oldestTier(CandidateIndex[] tiers) {
+        int oldestTier = -1;
+        int oldest = Integer.MAX_VALUE;
+        for (int tier = 0; tier < tiers.length; tier++) {
+            int candidate = tiers[tier].oldest();
+            if (candidate >= 0 && candidate < oldest) {
+                oldest = candidate;
+                oldestTier = tier;
+            }
+        }
+        return oldestTier;
+    }
+
+    /**
+     * Pair each skill band on the pairing pool, then pair what the bands left over in one
+     * sequential reconciliation pass. Bands cut the skill range at arbitrary points, so a
+     * player near a cut may only have partners on the other side; the leftovers of all
+     * bands together get that chance. Each match lies within one band or within the
+     * leftovers, so it satisfies the same rules as a sequential tick.
+     */
+    private Grouping groupInBands(QueueSnapshot snapshot, int[][] bands, int matchSize) {
+        List<Grouping> bandGroupings = pairingPool().invoke(new BandTask(snapshot, bands, 0, bands.length, matchSize));
+
+        List<int[]> groups = new ArrayList<>();
+        int leftoverCount = 0;
+        int candidatesExamined = 0;
+        int compatibilityChecks = 0;
+        for (Grouping bandGrouping : bandGroupings) {
+            groups.addAll(bandGrouping.groups());
+            leftoverCount += bandGrouping.leftover().length;
+            candidatesExamined += bandGrouping.candidatesExamined();
+            compatibilityChecks += bandGrouping.compatibilityChecks();
+        }
+
+        int[] leftover = new int[leftoverCount];
+        int offset = 0;
+        for (Grouping bandGrouping : bandGroupings) {
+            System.arraycopy(bandGrouping.leftover(), 0, leftover, offset, bandGrouping.leftover().length);
+            offset += bandGrouping.leftover().length;
+        }
+        Arrays.sort(leftover);
+
+        Grouping reconciled = group(snapshot, tiers(snapshot, leftover), matchSize);
+        groups.addAll(reconciled.groups());
+        // Commit oldest anchors first, as a sequential tick would
+        groups.sort(Comparator.comparingInt(group -> group[0]));
+
+        return new Grouping(groups, reconciled.leftover(),
+            candidatesExamined + reconciled.candidatesExamined(),
+            compatibilityChecks + reconciled.compatibilityChecks());
+    }
+
+    /**
+     * Split each region's eligible players, sorted by skill, into contiguous bands of about
+     * equal size, each returned in queue order. Returns null when the queue is too small
+     * to be worth splitting.
+     */
+    private int[][] skillBands(QueueSnapshot snapshot) {
+        long[][] keys = skillSortedKeys(snapshot);
+        int eligible = 0;
+        for (long[] regionKeys : keys) {
+            eligible += regionKeys.length;
+        }
+        if (eligible < 2 * minBandSize) {
+            return null;
+        }
+
+        // A few bands per thread so uneven bands still keep every worker busy
+        int bandSize = Math.max(minBandSize, eligible / (pairingPool().getParallelism() * 4));
+
+        List<int[]> bands = new ArrayList<>();
+        for (long[] regionKeys : keys) {
+            for (int from = 0; from < regionKeys.length; from += bandSize) {
+                int to = Math.min(regionKeys.length, from + bandSize);
+                int[] band = new int[to - from];
+                for (int i = from; i < to; i++) {
+                    band[i - from] = (int) regionKeys[i];
+                }
+                Arrays.sort(band);
+                bands.add(band);
+            }
+        }
+        return bands.toArray(new int[0][]);
+    }
+
+    /**
+     * Eligible players of each region as (skill << 32 | snapshot index) keys, sorted by
+     * skill and then queue order
+     */
+    private long[][] skillSortedKeys(QueueSnapshot snapshot) {
+        int[] counts = new int[snapshot.regionCount()];
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (isEligible(snapshot, i)) {
+                counts[snapshot.regionOrdinal(i)]++;
+            }
+        }
+
+        long[][] keys = new long[counts.length][];
+        int[] filled = new int[counts.length];
+        for (int region = 0; region < counts.length; region++) {
+            keys[region] = new long[counts[region]];
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (isEligible(snapshot, i)) {
+                int region = snapshot.regionOrdinal(i);
+                keys[region][filled[region]++] = ((long) snapshot.skill(i) << 32) | i;
+            }
+        }
+
+        for (long[] regionKeys : keys) {
+            Arrays.sort(regionKeys);
+        }
+        return keys;
+    }
+
+    /**
+     * Snapshot indexes of the players within their latency threshold, in queue order
+     */
+    private int[] eligibleOrders(QueueSnapshot snapshot) {
+        int[] orders = new int[snapshot.size()];
+        int count = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (isEligible(snapshot, i)) {
+                orders[count++] = i;
+            }
+        }
+        return Arrays.copyOf(orders, count);
+    }
+
+    private ForkJoinPool pairingPool() {
+        ForkJoinPool pool = pairingPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = pairingPool;
+                if (pool == null) {
+                    int threads = parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors();
+                    pool = new ForkJoinPool(threads);
+                    pairingPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pairingPool != null) {
+            pairingPool.shutdown();
+        }
+    }
+
+    /**
+     * Matches of one grouping pass as snapshot indexes, plus the eligible players it left unmatched
+     */
+    private record Grouping(List<int[]> groups, int[] leftover, int candidatesExamined, int compatibilityChecks) {
+    }
+
+    /**
+     * Pairs a range of skill bands, splitting the range in halves until one band is left
+     */
+    private final class BandTask extends RecursiveTask<List<Grouping>> {
+        private final QueueSnapshot snapshot;
+        private final int[][] bands;
+        private final int from;
+        private final int to;
+        private final int matchSize;
+
+        BandTask(QueueSnapshot snapshot, int[][] bands, int from, int to, int matchSize) {
+            this.snapshot = snapshot;
+            this.bands = bands;
+            this.from = from;
+            this.to = to;
+            this.matchSize = matchSize;
+        }
+
+        @Override
+        protected List<Grouping> compute() {
+            if (to - from == 1) {
+                // Pair a compact copy of the band, then map its indexes back to the snapshot
+                int[] band = bands[from];
+                QueueSnapshot bandSnapshot = snapshot.select(band);
+                int[] all = new int[band.length];
+                Arrays.setAll(all, i -> i);
+                Grouping grouping = group(bandSnapshot, tiers(bandSnapshot, all), matchSize);
+
+                grouping.groups().forEach(group -> Arrays.setAll(group, i -> band[group[i]]));
+                int[] leftover = grouping.leftover();
+                Arrays.setAll(leftover, i -> band[leftover[i]]);
+                return List.of(grouping);
+            }
+
+            int mid = (from + to) >>> 1;
+            BandTask left = new BandTask(snapshot, bands, from, mid, matchSize);
+            left.fork();
+            List<Grouping> right = new BandTask(snapshot, bands, mid, to, matchSize).compute();
+
+            List<Grouping> result = new ArrayList<>(left.join());
+            result.addAll(right);
+            return result;
+        }
+    }
+
     /**
      * Check if players have compatible skill ratings
      * Uses Elo/MMR-style scoring with configurable max gap
@@ -104,6 +736,35 @@ public class MatchmakingAlgorithm {
         return (skillScore * 0.6) + (latencyScore * 0.4);
     }
 
+    /**
+     * Calculate match quality score (0-100) of a formed match.
+     * Team matches also score team balance: 40% skill, 30% latency, 30% balance.
+     */
+    public double calculateMatchQuality(Match match) {
+        List<Match.Team> teams = match.getTeams();
+        if (teams == null || teams.size() < 2) {
+            return calculateMatchQuality(match.getPlayers());
+        }
+
+        double skillScore = calculateSkillScore(match.getPlayers());
+        double latencyScore = calculateLatencyScore(match.getPlayers());
+        double balanceScore = calculateBalanceScore(teams);
+        return (skillScore * 0.4) + (latencyScore * 0.3) + (balanceScore * 0.3);
+    }
+
+    /**
+     * Calculate team balance score from the spread of average team skill
+     */
+    private double calculateBalanceScore(List<Match.Team> teams) {
+        int minSkill = teams.stream().mapToInt(Match.Team::getAverageSkillRating).min().orElse(0);
+        int maxSkill = teams.stream().mapToInt(Match.Team::getAverageSkillRating).max().orElse(0);
+
+        // Players are mostly within maxSkillGap of each other, so team averages are too;
+        // a quarter of that gap between the teams already scores zero
+        double score = 100.0 - ((double) (maxSkill - minSkill) / (maxSkillGap / 4.0) * 100.0);
+        return Math.max(0, Math.min(100, score));
+    }
+
     /**
      * Calculate skill balance score
      */
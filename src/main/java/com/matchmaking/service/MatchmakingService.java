@@ -1,11 +1,15 @@
 package com.matchmaking.service;
 
+import com.matchmaking.metrics.MatchmakingMetrics;
+import com.matchmaking.metrics.TickProfile;
+import com.matchmaking.metrics.TickProfiler;
 import com.matchmaking.model.Match;
 import com.matchmaking.model.Player;
 import com.matchmaking.model.MatchResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -19,23 +23,38 @@ import java.util.UUID;
 public class MatchmakingService {
 
     private final MatchmakingAlgorithm matchmakingAlgorithm;
+    private final TeamBalancer teamBalancer;
     private final QueueService queueService;
-    private final RedisStreamService redisStreamService;
-    private final RedisCacheService redisCacheService;
+    private final QueueReplicaService queueReplicaService;
+    private final ShardLayout shardLayout;
     private final RedisLockService redisLockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MatchmakingMetrics matchmakingMetrics;
+    private final TickProfiler tickProfiler;
     
     @Value("${matchmaking.match.size:2}")
     private int matchSize;
 
     /**
      * Add a player to the matchmaking queue
+     *
+     * @return the player's 1-based queue position, or -1 if they were already queued
      */
-    public void joinQueue(Player player) {
+    public long joinQueue(Player player) {
         player.setQueuedAt(Instant.now());
         player.setStatus(Player.PlayerStatus.QUEUED);
-        queueService.enqueue(player);
+        
+        long position = queueService.enqueueIfAbsent(player);
+        if (position < 0) {
+            log.info("Player {} is already in queue", player.getPlayerId());
+            return position;
+        }
+        
         log.info("Player {} joined queue with skill rating {} and latency {}ms", 
             player.getPlayerId(), player.getSkillRating(), player.getLatency());
+        eventPublisher.publishEvent(
+            new PlayerQueuedEvent(player.getRegion(), player.getPlayerId(), player.getSkillRating()));
+        return position;
     }
 
     /**
@@ -50,69 +69,99 @@ public class MatchmakingService {
     }
 
     /**
-     * Attempt to find a match for players in the queue
+     * Attempt to find matches in every shard, one after another
      */
     public List<Match> processMatchmaking() {
-        return redisLockService.executeWithLock("matchmaking-process", () -> {
-            List<Match> matches = new ArrayList<>();
-            List<Player> queuedPlayers = queueService.getQueuedPlayers();
-            
-            if (queuedPlayers.size() < matchSize) {
-                log.debug("Not enough players in queue: {} (need {})", queuedPlayers.size(), matchSize);
-                return matches;
+        List<Match> matches = new ArrayList<>();
+        for (String region : queueService.getRegions()) {
+            for (MatchShard shard : shardLayout.shardsOf(region)) {
+                matches.addAll(processMatchmaking(shard));
             }
+        }
+        return matches;
+    }
+
+    /**
+     * Attempt to find a match for players in one shard.
+     * Each shard has its own lock, so different regions and skill bands can be matched
+     * in parallel on one node and across replicas. If another replica holds the shard,
+     * e.g. while ownership moves after a rebalance, the tick is skipped.
+     */
+    public List<Match> processMatchmaking(MatchShard shard) {
+        return tickProfiler.profile(shard.region(), () ->
+            redisLockService.tryExecuteWithFencedLock(ShardKeys.shardLock(shard), lease -> processShard(shard, lease))
+                .orElseGet(() -> {
+                    log.debug("Shard {} is being ticked elsewhere, skipping", shard.id());
+                    TickProfile.markSkipped();
+                    return List.of();
+                }));
+    }
 
-            log.info("Processing matchmaking for {} players", queuedPlayers.size());
-            
-            // Group players into potential matches
-            while (queuedPlayers.size() >= matchSize) {
-                Player anchor = queuedPlayers.get(0);
-                List<Player> matchedPlayers = new ArrayList<>();
-                matchedPlayers.add(anchor);
-                
-                // Find compatible players for this match
-                for (int i = 1; i < queuedPlayers.size() && matchedPlayers.size() < matchSize; i++) {
-                    Player candidate = queuedPlayers.get(i);
-                    
-                    if (matchmakingAlgorithm.arePlayersCompatible(anchor, candidate, matchedPlayers)) {
-                        matchedPlayers.add(candidate);
-                    }
-                }
-                
-                // If we found enough players, create a match
-                if (matchedPlayers.size() == matchSize) {
-                    Match match = createMatch(matchedPlayers);
-                    matches.add(match);
-                    
-                    // Remove matched players from queue
-                    matchedPlayers.forEach(p -> {
-                        queuedPlayers.remove(p);
-                        queueService.dequeue(p.getPlayerId());
-                        queueService.storeMatch(p.getPlayerId(), match);
-                    });
-                    
-                    redisStreamService.publishMatchCreated(match);
-                    
-                    redisCacheService.incrementMatchCounter();
-                    
-                    log.info("Created match {} with {} players (avg skill: {}, avg latency: {}ms)", 
-                        match.getMatchId(), matchedPlayers.size(), 
-                        match.getAverageSkillRating(), match.getAverageLatency());
-                } else {
-                    // Can't find a full match with this anchor, try next player
-                    queuedPlayers.remove(0);
-                }
+    /**
+     * One tick of a shard, run while holding the shard lock.
+     * Commits are fenced with the lease, so they are dropped if the lock was lost meanwhile.
+     */
+    private List<Match> processShard(MatchShard shard, LockLease lease) {
+        TickProfile.endPhase(TickProfile.Phase.LOCK_WAIT);
+        String region = shard.region();
+        List<Match> matches = new ArrayList<>();
+        ShardPairing pairing = queueReplicaService.withPool(shard, pool -> {
+            TickProfile.endPhase(TickProfile.Phase.FETCH);
+            if (pool.size() < matchSize) {
+                return new ShardPairing(pool.size(), List.of());
             }
-            
-            return matches;
+            log.info("Processing matchmaking for {} players in {}", pool.size(), shard.id());
+            // Group players into matches over the replica's candidate pool
+            return new ShardPairing(pool.size(), matchmakingAlgorithm.findMatches(pool, matchSize));
         });
+        
+        if (pairing.queued() < matchSize) {
+            log.debug("Not enough players in {} queue: {} (need {})", 
+                shard.id(), pairing.queued(), matchSize);
+            TickProfile.recordOutcome(pairing.queued(), 0, 0);
+            return matches;
+        }
+
+        for (List<Player> matchedPlayers : pairing.groups()) {
+            // Matches of players above the band only are left to the band above
+            if (matchedPlayers.stream().anyMatch(shard::owns)) {
+                matches.add(createMatch(matchedPlayers));
+            }
+        }
+        TickProfile.endPhase(TickProfile.Phase.PAIRING);
+        
+        // Commit the tick's matches in atomic batches; matches whose players left meanwhile come back
+        List<Match> rejected = queueService.commitMatches(region, matches, lease);
+        if (!rejected.isEmpty()) {
+            matches.removeAll(rejected);
+            // Players of rejected matches that are still queued are re-pooled on the next tick
+            rejected.forEach(match -> log.info(
+                "Match {} lost a race with a queue change, re-pooling its players", match.getMatchId()));
+        }
+        TickProfile.endPhase(TickProfile.Phase.COMMIT);
+        TickProfile.recordOutcome(pairing.queued(), matches.size(), rejected.size());
+        
+        for (Match match : matches) {
+            matchmakingMetrics.recordMatchCreated(match, matchmakingAlgorithm.calculateMatchQuality(match));
+            log.info("Created match {} with {} players (avg skill: {}, avg latency: {}ms)", 
+                match.getMatchId(), match.getPlayers().size(), 
+                match.getAverageSkillRating(), match.getAverageLatency());
+        }
+        
+        return matches;
+    }
+
+    /**
+     * Size of a shard's pool at the start of a tick, and the groups paired from it
+     */
+    private record ShardPairing(int queued, List<List<Player>> groups) {
     }
 
     /**
      * Get match result for a player
      */
     public MatchResult getMatchResult(String playerId) {
-        Match match = queueService.getMatch(playerId);
+        Match match = queueService.getMatch(playerId, ReplicaReadService.ReadEndpoint.MATCH_RESULT);
         
         if (match != null) {
             return MatchResult.builder()
@@ -130,7 +179,7 @@ public class MatchmakingService {
     }
 
     /**
-     * Create a match from a list of players
+     * Create a match from a list of players, split into balanced teams for N-vs-N lobbies
      */
     private Match createMatch(List<Player> players) {
         int totalSkill = players.stream().mapToInt(Player::getSkillRating).sum();
@@ -139,6 +188,7 @@ public class MatchmakingService {
         return Match.builder()
             .matchId(UUID.randomUUID().toString())
             .players(players)
+            .teams(teamBalancer.balance(players))
             .averageSkillRating(totalSkill / players.size())
             .averageLatency(totalLatency / players.size())
             .serverRegion(determineServerRegion(players))
@@ -0,0 +1,17 @@
+package com.matchmaking.service;
+
+/**
+ * Published after a player joins a region queue on this node, or when another
+ * node forwards such a join to this node because it owns the player's shard
+ *
+ * @param region      the region the player joined
+ * @param playerId    the player who joined
+ * @param skillRating the player's skill rating, which picks the skill band shard
+ * @param forwarded   whether the join happened on another node
+ */
+public record PlayerQueuedEvent(String region, String playerId, int skillRating, boolean forwarded) {
+
+    public PlayerQueuedEvent(String region, String playerId, int skillRating) {
+        this(region, playerId, skillRating, false);
+    }
+}
@@ -0,0 +1,35 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+
+/**
+ * One entry of a region queue's mutation stream
+ *
+ * @param sequence  position in the shard's mutation sequence
+ * @param operation what happened to the player
+ * @param playerId  the affected player
+ * @param player    the queued player record, only present for joins
+ */
+public record QueueMutation(long sequence, Operation operation, String playerId, Player player) {
+
+    public enum Operation {
+        JOINED("J"),
+        LEFT("L"),
+        MATCHED("M");
+
+        private final String code;
+
+        Operation(String code) {
+            this.code = code;
+        }
+
+        public static Operation fromCode(String code) {
+            for (Operation operation : values()) {
+                if (operation.code.equals(code)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown queue mutation: " + code);
+        }
+    }
+}
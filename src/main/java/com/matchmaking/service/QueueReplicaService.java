@@ -0,0 +1,143 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Node-local replica of the shards' queues, kept in sync from each region's mutation stream.
+ * A tick only fetches the mutations logged since the previous tick, so its Redis cost
+ * scales with arrivals rather than queue size.
+ * Each shard's players are held in a CandidatePool, whose snapshot and candidate indexes
+ * are updated per mutation, so a tick pairs them without copying the shard or
+ * rebuilding its indexes either.
+ * A skill band shard only replicates the players it can pair, and resyncs from the
+ * region's skill index rather than reading the whole region.
+ * A shard is re-read from Redis when the replica falls behind the stream or after
+ * matchmaking.replica.resync-interval-ms. Players whose queue record has expired are
+ * dropped locally, oldest first, without waiting for the resync.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueueReplicaService {
+
+    private final QueueService queueService;
+    private final MatchmakingAlgorithm matchmakingAlgorithm;
+
+    @Value("${matchmaking.replica.enabled:true}")
+    private boolean enabled;
+
+    @Value("${matchmaking.replica.sync-batch-size:1000}")
+    private int syncBatchSize;
+
+    @Value("${matchmaking.replica.resync-interval-ms:60000}")
+    private long resyncIntervalMs;
+
+    private final Map<String, ShardReplica> replicas = new ConcurrentHashMap<>();
+
+    /**
+     * Bring a shard's replica up to date and run a tick over its candidate pool.
+     * The pool is only valid inside the tick, which holds the replica meanwhile.
+     * With the replica disabled, the tick gets a pool read from Redis for it alone.
+     */
+    public <T> T withPool(MatchShard shard, Function<CandidatePool, T> tick) {
+        if (!enabled) {
+            CandidatePool pool = matchmakingAlgorithm.newPool();
+            pool.reset(queueService.getQueuedPlayers(shard));
+            return tick.apply(pool);
+        }
+
+        ShardReplica replica = replicas.computeIfAbsent(shard.id(),
+            id -> new ShardReplica(shard, matchmakingAlgorithm.newPool()));
+        synchronized (replica) {
+            if (System.currentTimeMillis() - replica.syncedAt >= resyncIntervalMs
+                    || !catchUp(shard, replica)) {
+                resync(shard, replica);
+            }
+            replica.pool.removeQueuedBefore(
+                System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(QueueService.QUEUE_TTL));
+            return tick.apply(replica.pool);
+        }
+    }
+
+    /**
+     * Apply mutations logged after the replica's sequence
+     *
+     * @return false if entries were trimmed from the stream before they could be applied
+     */
+    private boolean catchUp(MatchShard shard, ShardReplica replica) {
+        while (true) {
+            List<QueueMutation> mutations = queueService.readMutations(shard.region(), replica.sequence, syncBatchSize);
+
+            for (QueueMutation mutation : mutations) {
+                if (mutation.sequence() != replica.sequence + 1) {
+                    log.info("Replica of {} fell behind the mutation stream (expected {}, found {})",
+                        shard.id(), replica.sequence + 1, mutation.sequence());
+                    return false;
+                }
+                replica.apply(mutation);
+            }
+
+            if (mutations.size() < syncBatchSize) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Rebuild a shard replica from the queue in Redis.
+     * The sequence is read before the queue, and mutations logged while the queue was
+     * being read are replayed on top; replay is idempotent, so the result is consistent.
+     */
+    private void resync(MatchShard shard, ShardReplica replica) {
+        long sequence = queueService.getMutationSequence(shard.region());
+        List<Player> players = queueService.getQueuedPlayers(shard);
+
+        replica.reset(players, sequence);
+        if (!catchUp(shard, replica)) {
+            log.warn("Mutation stream of {} trimmed during resync, retrying on next tick", shard.id());
+            replica.syncedAt = 0;
+        }
+
+        log.debug("Resynced replica of {} with {} players at sequence {}", shard.id(), players.size(), sequence);
+    }
+
+    private static final class ShardReplica {
+        private final MatchShard shard;
+        private final CandidatePool pool;
+        private long sequence = -1;
+        private long syncedAt;
+
+        ShardReplica(MatchShard shard, CandidatePool pool) {
+            this.shard = shard;
+            this.pool = pool;
+        }
+
+        void reset(List<Player> queuedPlayers, long sequence) {
+            pool.reset(queuedPlayers);
+            this.sequence = sequence;
+            this.syncedAt = System.currentTimeMillis();
+        }
+
+        void apply(QueueMutation mutation) {
+            switch (mutation.operation()) {
+                case JOINED -> {
+                    if (mutation.player() != null && shard.reaches(mutation.player())) {
+                        pool.add(mutation.player());
+                    }
+                }
+                case LEFT, MATCHED -> pool.remove(mutation.playerId());
+            }
+            sequence = mutation.sequence();
+        }
+    }
+}
@@ -1,19 +1,43 @@
 package com.matchmaking.service;
 
+import com.matchmaking.metrics.MatchmakingMetrics;
+import com.matchmaking.metrics.TickProfile;
 import com.matchmaking.model.Match;
 import com.matchmaking.model.Player;
+import com.matchmaking.service.ReplicaReadService.ReadEndpoint;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Redis-backed queue service for high-performance concurrent matchmaking
+ * Redis-backed queue service for high-performance concurrent matchmaking.
+ * All keys of a region shard share a hash tag (see ShardKeys), so the service
+ * runs unchanged against a single Redis or a Redis Cluster.
  */
 @Slf4j
 @Service
@@ -21,114 +45,726 @@ import java.util.concurrent.TimeUnit;
 public class QueueService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final MatchmakingMetrics matchmakingMetrics;
+    private final ReplicaReadService replicaReadService;
+    private final StripedCounters stripedCounters;
+    private final RedisScript<Long> joinQueueScript;
+    private final RedisScript<Long> leaveQueueScript;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> commitMatchesScript;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> skillCandidatesScript;
     
-    private static final String QUEUE_KEY = "matchmaking:queue";
-    private static final String PLAYER_KEY_PREFIX = "matchmaking:player:";
-    private static final String MATCH_KEY_PREFIX = "matchmaking:match:";
-    private static final long QUEUE_TTL = 300; // 5 minutes
+    @Value("${matchmaking.queue.fetch-chunk-size:500}")
+    private int fetchChunkSize;
+    
+    @Value("${matchmaking.skill.max-gap:200}")
+    private int maxSkillGap;
+    
+    @Value("${matchmaking.commit.batch-size:200}")
+    private int commitBatchSize;
+    
+    @Value("${matchmaking.regions:us-east,us-west,eu-west,ap-southeast}")
+    private List<String> supportedRegions;
+    
+    @Value("${matchmaking.queue.mutation-stream-length:100000}")
+    private long mutationStreamLength;
+    
+    @Value("${matchmaking.counters.cache-ttl-ms:1000}")
+    private long queueSizeCacheTtlMs;
+    
+    static final long QUEUE_TTL = 300; // 5 minutes
     private static final long MATCH_TTL = 600; // 10 minutes
 
+    // Regions this node has already registered, so enqueue only pays for SADD once per region
+    private final Set<String> knownRegions = ConcurrentHashMap.newKeySet();
+
+    // Total queue size last read for the status endpoint, and when it goes stale
+    private volatile long cachedQueueSize;
+    private volatile long queueSizeExpiresAt;
+    private final Map<String, CachedSize> regionQueueSizes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void bindMetrics() {
+        matchmakingMetrics.bindQueueSize(this::getQueueSizeForGauge);
+    }
+
     /**
-     * Add a player to the matchmaking queue
+     * Add a player to the matchmaking queue of their region (no-op if already queued)
      */
     public void enqueue(Player player) {
-        String playerKey = PLAYER_KEY_PREFIX + player.getPlayerId();
+        if (enqueueIfAbsent(player) < 0) {
+            log.debug("Player {} already queued", player.getPlayerId());
+        }
+    }
+
+    /**
+     * Atomically add a player to their region queue unless they are already queued.
+     * The player first claims their cross-region membership key with SET NX, so a player
+     * waits in one region at a time; concurrent joins to different regions cannot both
+     * claim it. Duplicate check, player record, queue entry and position lookup then run
+     * in one shard script. The claim expires with the player record and is released when
+     * the player leaves or is matched.
+     *
+     * @return the 1-based queue position, or -1 if the player is already queued in any region
+     * @throws IllegalArgumentException if the player's region is not in matchmaking.regions
+     */
+    public long enqueueIfAbsent(Player player) {
+        if (!isSupportedRegion(player.getRegion())) {
+            throw new IllegalArgumentException("Unsupported region: " + player.getRegion());
+        }
+        registerRegion(player.getRegion());
         
-        // Store player data
-        redisTemplate.opsForValue().set(playerKey, player, QUEUE_TTL, TimeUnit.SECONDS);
+        long score = player.getQueuedAt() != null 
+            ? player.getQueuedAt().toEpochMilli() 
+            : System.currentTimeMillis();
         
-        // Add to sorted set with timestamp as score for FIFO ordering
-        double score = System.currentTimeMillis();
-        redisTemplate.opsForZSet().add(QUEUE_KEY, player.getPlayerId(), score);
+        String region = player.getRegion();
+        String membership = ShardKeys.membership(player.getPlayerId());
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(membership, region, QUEUE_TTL, TimeUnit.SECONDS);
+        TickProfile.addRedisCommands(1);
+        if (!Boolean.TRUE.equals(claimed)) {
+            return -1;
+        }
         
-        log.debug("Enqueued player {} with score {}", player.getPlayerId(), score);
+        Long position;
+        try {
+            position = executeScript(
+                joinQueueScript,
+                List.of(ShardKeys.queue(region), ShardKeys.player(region, player.getPlayerId()),
+                    ShardKeys.mutationSequence(region), ShardKeys.mutationStream(region), ShardKeys.skillIndex(region)),
+                serializeValue(player.getPlayerId()),
+                serializeValue(player),
+                asciiBytes(score),
+                asciiBytes(QUEUE_TTL),
+                asciiBytes(mutationStreamLength),
+                asciiBytes(player.getSkillRating())
+            );
+        } catch (RuntimeException e) {
+            redisTemplate.delete(membership);
+            throw e;
+        }
+        
+        if (position == null || position < 0) {
+            return -1;
+        }
+        
+        queueSizeExpiresAt = 0;
+        matchmakingMetrics.recordPlayerJoined(region);
+        log.debug("Enqueued player {} in region {} at position {}", 
+            player.getPlayerId(), player.getRegion(), position);
+        return position;
+    }
+
+    /**
+     * Atomically commit matches formed by a tick of one region shard.
+     * For each match the script checks that every player is still queued, then removes
+     * them, stores the match for each player and appends the stream events. Matches are
+     * sent in batches of matchmaking.commit.batch-size, and the committed ones are added
+     * to the striped total matches counter after each batch.
+     *
+     * @return the matches that were rejected because a player left the queue meanwhile
+     */
+    public List<Match> commitMatches(String region, List<Match> matches) {
+        return commitMatches(region, matches, null);
+    }
+
+    /**
+     * Commit matches on behalf of the holder of a shard lock. Batches are rejected
+     * as a whole once the lock has been acquired again after this lease.
+     *
+     * @param lease the caller's lock lease, or null to commit without fencing
+     */
+    public List<Match> commitMatches(String region, List<Match> matches, LockLease lease) {
+        List<Match> rejected = new ArrayList<>();
+        
+        for (int from = 0; from < matches.size(); from += commitBatchSize) {
+            List<Match> batch = matches.subList(from, Math.min(from + commitBatchSize, matches.size()));
+            List<String> keys = new ArrayList<>();
+            List<byte[]> args = new ArrayList<>();
+            
+            keys.add(ShardKeys.queue(region));
+            keys.add(ShardKeys.matchStream(region));
+            keys.add(ShardKeys.mutationSequence(region));
+            keys.add(ShardKeys.mutationStream(region));
+            // The fence key is not read when there is no lease, any key of the shard will do
+            keys.add(lease != null ? lease.fenceKey() : ShardKeys.queue(region));
+            keys.add(ShardKeys.skillIndex(region));
+            args.add(asciiBytes(MATCH_TTL));
+            args.add(asciiBytes(mutationStreamLength));
+            args.add(asciiBytes(batch.size()));
+            args.add(asciiBytes(lease != null ? lease.fencingToken() : 0));
+            
+            for (Match match : batch) {
+                args.add(utf8Bytes(match.getMatchId()));
+                args.add(asciiBytes(match.getPlayers().size()));
+                args.add(serializeValue(match));
+                args.add(asciiBytes(match.getAverageSkillRating()));
+                args.add(asciiBytes(match.getAverageLatency()));
+                args.add(utf8Bytes(match.getServerRegion()));
+                args.add(utf8Bytes(match.getCreatedAt().toString()));
+                
+                for (Player player : match.getPlayers()) {
+                    keys.add(ShardKeys.player(region, player.getPlayerId()));
+                    keys.add(ShardKeys.match(region, player.getPlayerId()));
+                    keys.add(ShardKeys.playerStream(region, player.getPlayerId()));
+                    args.add(serializeValue(player.getPlayerId()));
+                }
+            }
+            
+            List<?> rejectedIndexes = executeScript(commitMatchesScript, keys, args.toArray());
+            boolean[] batchRejected = new boolean[batch.size()];
+            int rejectedCount = 0;
+            if (rejectedIndexes != null) {
+                for (Object index : rejectedIndexes) {
+                    int i = ((Number) index).intValue();
+                    batchRejected[i] = true;
+                    rejected.add(batch.get(i));
+                    rejectedCount++;
+                }
+            }
+            if (batch.size() > rejectedCount) {
+                queueSizeExpiresAt = 0;
+                stripedCounters.increment(RedisCacheService.TOTAL_MATCHES_COUNTER, batch.size() - rejectedCount);
+                TickProfile.addRedisCommands(1);
+                
+                List<String> matchedPlayerIds = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    if (!batchRejected[i]) {
+                        batch.get(i).getPlayers().forEach(player -> matchedPlayerIds.add(player.getPlayerId()));
+                    }
+                }
+                releaseMemberships(matchedPlayerIds);
+            }
+        }
+        
+        log.debug("Committed {} of {} matches in {}", 
+            matches.size() - rejected.size(), matches.size(), region);
+        return rejected;
     }
 
     /**
      * Remove a player from the matchmaking queue
      */
     public boolean dequeue(String playerId) {
-        String playerKey = PLAYER_KEY_PREFIX + playerId;
+        String region = findRegion(redisTemplate, playerId);
+        return region != null && dequeue(region, playerId);
+    }
+
+    /**
+     * Remove a player from the matchmaking queue of a known region
+     */
+    public boolean dequeue(String region, String playerId) {
+        boolean removed = removePlayers(region, List.of(playerId)) > 0;
+        if (removed) {
+            releaseMemberships(List.of(playerId));
+            matchmakingMetrics.recordPlayerLeft(region);
+        }
+        return removed;
+    }
+
+    /**
+     * Release the cross-region membership claims of players who left their queue
+     */
+    private void releaseMemberships(List<String> playerIds) {
+        if (!playerIds.isEmpty()) {
+            redisTemplate.delete(playerIds.stream().map(ShardKeys::membership).toList());
+            TickProfile.addRedisCommands(1);
+        }
+    }
+
+    /**
+     * Remove players and their records from a region queue and log each removal
+     * to the shard's mutation stream, in one atomic script call
+     */
+    private long removePlayers(String region, List<?> playerIds) {
+        List<String> keys = new ArrayList<>(playerIds.size() + 4);
+        List<byte[]> args = new ArrayList<>(playerIds.size() + 1);
         
-        // Remove from sorted set
-        Long removed = redisTemplate.opsForZSet().remove(QUEUE_KEY, playerId);
+        keys.add(ShardKeys.queue(region));
+        keys.add(ShardKeys.mutationSequence(region));
+        keys.add(ShardKeys.mutationStream(region));
+        keys.add(ShardKeys.skillIndex(region));
+        args.add(asciiBytes(mutationStreamLength));
         
-        // Delete player data
-        redisTemplate.delete(playerKey);
+        for (Object playerId : playerIds) {
+            keys.add(ShardKeys.player(region, playerId.toString()));
+            args.add(serializeValue(playerId.toString()));
+        }
         
-        return removed != null && removed > 0;
+        Long removed = executeScript(leaveQueueScript, keys, args.toArray());
+        if (removed != null && removed > 0) {
+            queueSizeExpiresAt = 0;
+        }
+        return removed != null ? removed : 0;
     }
 
     /**
-     * Get all players currently in the queue
+     * Get all players currently in the queue, region by region
      */
     public List<Player> getQueuedPlayers() {
-        Set<Object> playerIds = redisTemplate.opsForZSet().range(QUEUE_KEY, 0, -1);
         List<Player> players = new ArrayList<>();
+        for (String region : getRegions()) {
+            players.addAll(getQueuedPlayers(region));
+        }
+        return players;
+    }
+
+    /**
+     * Get all players currently in the queue of one region, in FIFO order.
+     * Player records are read with MGET in chunks and stale entries are removed
+     * with a single ZREM, so a tick costs a handful of round trips instead of one per player.
+     */
+    public List<Player> getQueuedPlayers(String region) {
+        long start = System.nanoTime();
+        Set<Object> playerIds = redisTemplate.opsForZSet().range(ShardKeys.queue(region), 0, -1);
+        TickProfile.addRedisCommands(1);
+        return fetchPlayers(region, playerIds != null ? new ArrayList<>(playerIds) : List.of(), start);
+    }
+
+    /**
+     * Get the players a shard can pair, in FIFO order.
+     * A skill band reads only its range of the region's skill index, so the fetch
+     * costs the band's share of the queue rather than the whole region.
+     */
+    public List<Player> getQueuedPlayers(MatchShard shard) {
+        if (!shard.isBanded()) {
+            return getQueuedPlayers(shard.region());
+        }
+        long maxSkill = Math.min(Integer.MAX_VALUE, (long) shard.maxSkill() + shard.reach() - 1);
+        return findSkillRange(shard.region(), shard.minSkill(), (int) maxSkill, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read the records of queued players with MGET in chunks, removing queue entries
+     * whose record has expired in a single batch, and record the fetch
+     */
+    private List<Player> fetchPlayers(String region, List<Object> ids, long start) {
+        int roundTrips = 1;
+        List<Player> players = new ArrayList<>(ids.size());
         
-        if (playerIds != null) {
-            for (Object playerId : playerIds) {
-                String playerKey = PLAYER_KEY_PREFIX + playerId;
-                Player player = (Player) redisTemplate.opsForValue().get(playerKey);
+        if (!ids.isEmpty()) {
+            List<Object> staleIds = new ArrayList<>();
+            
+            for (int from = 0; from < ids.size(); from += fetchChunkSize) {
+                List<Object> chunk = ids.subList(from, Math.min(from + fetchChunkSize, ids.size()));
+                List<String> playerKeys = new ArrayList<>(chunk.size());
+                chunk.forEach(playerId -> playerKeys.add(ShardKeys.player(region, playerId.toString())));
                 
-                if (player != null) {
-                    players.add(player);
-                } else {
-                    // Clean up stale entry
-                    redisTemplate.opsForZSet().remove(QUEUE_KEY, playerId);
+                List<Object> values = redisTemplate.opsForValue().multiGet(playerKeys);
+                TickProfile.addRedisCommands(1);
+                roundTrips++;
+                
+                for (int i = 0; i < chunk.size(); i++) {
+                    Object value = values != null ? values.get(i) : null;
+                    if (value != null) {
+                        players.add((Player) value);
+                    } else {
+                        staleIds.add(chunk.get(i));
+                    }
                 }
             }
+            
+            if (!staleIds.isEmpty()) {
+                // Clean up stale entries in one batch
+                removePlayers(region, staleIds);
+                roundTrips++;
+                log.debug("Removed {} stale entries from {} queue", staleIds.size(), region);
+            }
         }
         
+        matchmakingMetrics.recordQueueFetch(region, roundTrips, Duration.ofNanos(System.nanoTime() - start));
         return players;
     }
 
     /**
-     * Get current queue size
+     * Get the longest-waiting players of a region within matchmaking.skill.max-gap of a rating
+     */
+    public List<Player> findSkillCandidates(String region, int skillRating, int limit) {
+        return findSkillCandidates(region, skillRating, maxSkillGap, limit);
+    }
+
+    /**
+     * Get up to {@code limit} of the longest-waiting players of a region whose rating is
+     * within {@code skillGap} of {@code skillRating}, oldest first.
+     * The range is read from the shard's skill index inside Redis, so only matching
+     * players are transferred: one script call for the ids and one MGET for the records.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Player> findSkillCandidates(String region, int skillRating, int skillGap, int limit) {
+        return findSkillRange(region, skillRating - skillGap, skillRating + skillGap, limit);
+    }
+
+    /**
+     * Get up to {@code limit} of the longest-waiting players of a region rated from
+     * {@code minSkill} to {@code maxSkill} inclusive, oldest first.
+     * The range is read from the shard's skill index inside Redis, so only matching
+     * players are transferred: one script call for the ids and MGETs for the records.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Player> findSkillRange(String region, int minSkill, int maxSkill, int limit) {
+        long start = System.nanoTime();
+        List<byte[]> members = redisTemplate.execute(
+            skillCandidatesScript, RedisSerializer.byteArray(), (RedisSerializer) RedisSerializer.byteArray(),
+            List.of(ShardKeys.queue(region), ShardKeys.skillIndex(region)),
+            asciiBytes(minSkill), asciiBytes(maxSkill), asciiBytes(limit));
+        TickProfile.addRedisCommands(1);
+        
+        List<Object> ids = new ArrayList<>();
+        if (members != null) {
+            members.forEach(member -> ids.add(redisTemplate.getValueSerializer().deserialize(member)));
+        }
+        return fetchPlayers(region, ids, start);
+    }
+
+    /**
+     * Add queued players that are missing from their shard's skill index, such as players
+     * who joined before the index existed. Runs once at startup; ZADD NX leaves indexed
+     * players untouched, and an entry added for a player who left meanwhile is removed by
+     * the next candidate search.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSkillIndex() {
+        try {
+            for (String region : getRegions()) {
+                Set<ZSetOperations.TypedTuple<Object>> entries = new HashSet<>();
+                getQueuedPlayers(region).forEach(player ->
+                    entries.add(ZSetOperations.TypedTuple.of(player.getPlayerId(), (double) player.getSkillRating())));
+                if (entries.isEmpty()) {
+                    continue;
+                }
+                
+                Long added = redisTemplate.opsForZSet().addIfAbsent(ShardKeys.skillIndex(region), entries);
+                if (added != null && added > 0) {
+                    log.info("Backfilled {} queued players into the {} skill index", added, region);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not backfill the skill index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the sequence number of the latest mutation logged for a region queue
+     */
+    public long getMutationSequence(String region) {
+        Object value = redisTemplate.opsForValue().get(ShardKeys.mutationSequence(region));
+        TickProfile.addRedisCommands(1);
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    /**
+     * Read up to {@code count} queue mutations of a region that follow {@code afterSequence}.
+     * Mutation stream entries use the shard's mutation sequence as their id (0-seq),
+     * so readers can tell from the ids alone whether entries were trimmed away.
+     */
+    public List<QueueMutation> readMutations(String region, long afterSequence, int count) {
+        byte[] streamKey = utf8Bytes(ShardKeys.mutationStream(region));
+        
+        List<ByteRecord> records = redisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+            connection.streamCommands().xRead(
+                StreamReadOptions.empty().count(count),
+                StreamOffset.create(streamKey, ReadOffset.from("0-" + afterSequence))));
+        TickProfile.addRedisCommands(1);
+        
+        List<QueueMutation> mutations = new ArrayList<>();
+        if (records == null) {
+            return mutations;
+        }
+        
+        for (ByteRecord record : records) {
+            QueueMutation.Operation operation = null;
+            String playerId = null;
+            Player player = null;
+            
+            for (Map.Entry<byte[], byte[]> field : record.getValue().entrySet()) {
+                switch (new String(field.getKey(), StandardCharsets.UTF_8)) {
+                    case "op" -> operation = QueueMutation.Operation.fromCode(
+                        new String(field.getValue(), StandardCharsets.UTF_8));
+                    case "member" -> playerId = (String) redisTemplate.getValueSerializer().deserialize(field.getValue());
+                    case "player" -> player = (Player) redisTemplate.getValueSerializer().deserialize(field.getValue());
+                    default -> { }
+                }
+            }
+            
+            mutations.add(new QueueMutation(record.getId().getSequence(), operation, playerId, player));
+        }
+        
+        return mutations;
+    }
+
+    /**
+     * Whether a region is one of the configured matchmaking.regions.
+     * Only these get a queue shard, so clients cannot create shards at will.
+     */
+    public boolean isSupportedRegion(String region) {
+        return region != null && supportedRegions.contains(region);
+    }
+
+    /**
+     * Get every supported region that has had a queue shard
+     */
+    public Set<String> getRegions() {
+        return getRegions(redisTemplate);
+    }
+
+    private Set<String> getRegions(RedisTemplate<String, Object> reads) {
+        Set<Object> members = reads.opsForSet().members(ShardKeys.REGIONS);
+        Set<String> regions = new TreeSet<>();
+        
+        if (members != null) {
+            members.forEach(member -> {
+                if (isSupportedRegion(member.toString())) {
+                    regions.add(member.toString());
+                }
+            });
+        }
+        
+        return regions;
+    }
+
+    /**
+     * Get current queue size, summed over the region shards with one pipeline.
+     * Read from a replica within the queue status staleness budget and cached
+     * locally for matchmaking.counters.cache-ttl-ms; queue changes made through
+     * this node drop the cached value.
      */
     public long getQueueSize() {
-        Long size = redisTemplate.opsForZSet().size(QUEUE_KEY);
+        long now = System.currentTimeMillis();
+        if (now < queueSizeExpiresAt) {
+            return cachedQueueSize;
+        }
+        
+        RedisTemplate<String, Object> reads = replicaReadService.templateFor(ReadEndpoint.QUEUE_STATUS);
+        List<String> regions = new ArrayList<>(getRegions(reads));
+        long total = 0;
+        if (!regions.isEmpty()) {
+            List<Object> sizes = reads.executePipelined((RedisCallback<Object>) connection -> {
+                for (String region : regions) {
+                    connection.zSetCommands().zCard(utf8Bytes(ShardKeys.queue(region)));
+                }
+                return null;
+            });
+            for (Object size : sizes) {
+                total += size != null ? ((Number) size).longValue() : 0;
+            }
+        }
+        
+        cachedQueueSize = total;
+        queueSizeExpiresAt = now + queueSizeCacheTtlMs;
+        return total;
+    }
+
+    /**
+     * Queue size of one region for the metrics gauge, read like the total queue size:
+     * from a replica within the queue status budget, cached for matchmaking.counters.cache-ttl-ms
+     */
+    private double getQueueSizeForGauge(String region) {
+        long now = System.currentTimeMillis();
+        CachedSize cached = regionQueueSizes.get(region);
+        if (cached != null && now < cached.expiresAt()) {
+            return cached.size();
+        }
+        
+        try {
+            Long size = replicaReadService.templateFor(ReadEndpoint.QUEUE_STATUS)
+                .opsForZSet().size(ShardKeys.queue(region));
+            long value = size != null ? size : 0;
+            regionQueueSizes.put(region, new CachedSize(value, now + queueSizeCacheTtlMs));
+            return value;
+        } catch (RuntimeException e) {
+            log.debug("Could not read queue size of {}: {}", region, e.getMessage());
+            return cached != null ? cached.size() : Double.NaN;
+        }
+    }
+
+    private record CachedSize(long size, long expiresAt) {
+    }
+
+    /**
+     * Get current queue size of one region
+     */
+    public long getQueueSize(String region) {
+        Long size = redisTemplate.opsForZSet().size(ShardKeys.queue(region));
         return size != null ? size : 0;
     }
 
     /**
-     * Store a match result for a player
+     * Store a match result for a player in the shard of the match's region
      */
     public void storeMatch(String playerId, Match match) {
-        String matchKey = MATCH_KEY_PREFIX + playerId;
+        String matchKey = ShardKeys.match(match.getServerRegion(), playerId);
         redisTemplate.opsForValue().set(matchKey, match, MATCH_TTL, TimeUnit.SECONDS);
         log.debug("Stored match {} for player {}", match.getMatchId(), playerId);
     }
 
     /**
-     * Retrieve a match result for a player
+     * Retrieve the latest match result for a player.
+     * Match records live in their region's shard, so every shard is asked in one pipeline.
      */
     public Match getMatch(String playerId) {
-        String matchKey = MATCH_KEY_PREFIX + playerId;
-        return (Match) redisTemplate.opsForValue().get(matchKey);
+        return getMatch(redisTemplate, playerId);
+    }
+
+    /**
+     * Retrieve the latest match result for a player on behalf of a read-only endpoint,
+     * from a replica while it is within the endpoint's staleness budget
+     */
+    public Match getMatch(String playerId, ReadEndpoint endpoint) {
+        return getMatch(replicaReadService.templateFor(endpoint), playerId);
+    }
+
+    private Match getMatch(RedisTemplate<String, Object> reads, String playerId) {
+        List<String> regions = new ArrayList<>(getRegions(reads));
+        if (regions.isEmpty()) {
+            return null;
+        }
+        
+        List<Object> values = reads.executePipelined((RedisCallback<Object>) connection -> {
+            for (String region : regions) {
+                connection.stringCommands().get(utf8Bytes(ShardKeys.match(region, playerId)));
+            }
+            return null;
+        });
+        
+        Match latest = null;
+        for (Object value : values) {
+            if (value instanceof Match match && (latest == null || isNewer(match, latest))) {
+                latest = match;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Retrieve a match result for a player from the shard of a known region
+     */
+    public Match getMatch(String region, String playerId) {
+        return (Match) redisTemplate.opsForValue().get(ShardKeys.match(region, playerId));
     }
 
     /**
      * Check if a player is in the queue
      */
     public boolean isPlayerInQueue(String playerId) {
-        Double score = redisTemplate.opsForZSet().score(QUEUE_KEY, playerId);
+        return findRegion(redisTemplate, playerId) != null;
+    }
+
+    /**
+     * Check if a player is in the queue of a known region
+     */
+    public boolean isPlayerInQueue(String region, String playerId) {
+        Double score = redisTemplate.opsForZSet().score(ShardKeys.queue(region), playerId);
         return score != null;
     }
 
     /**
-     * Get player's position in queue
+     * Get player's position in their region's queue,
+     * read from a replica within the queue position staleness budget
      */
     public long getPlayerPosition(String playerId) {
-        Long rank = redisTemplate.opsForZSet().rank(QUEUE_KEY, playerId);
+        RedisTemplate<String, Object> reads = replicaReadService.templateFor(ReadEndpoint.QUEUE_POSITION);
+        String region = findRegion(reads, playerId);
+        if (region == null) {
+            return -1;
+        }
+        Long rank = reads.opsForZSet().rank(ShardKeys.queue(region), playerId);
         return rank != null ? rank + 1 : -1;
     }
 
     /**
-     * Clear all queue data (for testing/maintenance)
+     * Get player's position in the queue of a known region
+     */
+    public long getPlayerPosition(String region, String playerId) {
+        Long rank = redisTemplate.opsForZSet().rank(ShardKeys.queue(region), playerId);
+        return rank != null ? rank + 1 : -1;
+    }
+
+    /**
+     * Clear all queue data (for testing/maintenance).
+     * Players are removed through the leave script, so every removal is logged and node-local
+     * replicas drop them too; the mutation sequence keeps counting up, never rewinds.
      */
     public void clearQueue() {
-        redisTemplate.delete(QUEUE_KEY);
+        for (String region : getRegions()) {
+            Set<Object> queued = redisTemplate.opsForZSet().range(ShardKeys.queue(region), 0, -1);
+            List<Object> playerIds = queued != null ? new ArrayList<>(queued) : List.of();
+            for (int from = 0; from < playerIds.size(); from += fetchChunkSize) {
+                List<Object> chunk = playerIds.subList(from, Math.min(from + fetchChunkSize, playerIds.size()));
+                removePlayers(region, chunk);
+                releaseMemberships(chunk.stream().map(Object::toString).toList());
+            }
+            redisTemplate.delete(ShardKeys.skillIndex(region));
+        }
+        redisTemplate.delete(ShardKeys.REGIONS);
+        knownRegions.clear();
+        queueSizeExpiresAt = 0;
         log.info("Cleared matchmaking queue");
     }
+
+    /**
+     * Find the region shard a player is queued in, asking every shard in one pipeline
+     */
+    private String findRegion(RedisTemplate<String, Object> reads, String playerId) {
+        List<String> regions = new ArrayList<>(getRegions(reads));
+        if (regions.isEmpty()) {
+            return null;
+        }
+        
+        byte[] member = serializeValue(playerId);
+        List<Object> scores = reads.executePipelined((RedisCallback<Object>) connection -> {
+            for (String region : regions) {
+                connection.zSetCommands().zScore(utf8Bytes(ShardKeys.queue(region)), member);
+            }
+            return null;
+        });
+        
+        for (int i = 0; i < regions.size(); i++) {
+            if (scores.get(i) != null) {
+                return regions.get(i);
+            }
+        }
+        
+        return null;
+    }
+
+    private static boolean isNewer(Match match, Match other) {
+        return match.getCreatedAt() != null
+            && (other.getCreatedAt() == null || match.getCreatedAt().isAfter(other.getCreatedAt()));
+    }
+
+    private void registerRegion(String region) {
+        if (knownRegions.add(region)) {
+            redisTemplate.opsForSet().add(ShardKeys.REGIONS, region);
+        }
+    }
+
+    /**
+     * Run a script with raw byte arguments, leaving key encoding to the template
+     */
+    private <T> T executeScript(RedisScript<T> script, List<String> keys, Object... args) {
+        return executeScript(script, new GenericToStringSerializer<>(script.getResultType()), keys, args);
+    }
+
+    private <T> T executeScript(RedisScript<T> script, RedisSerializer<T> resultSerializer,
+                                List<String> keys, Object... args) {
+        TickProfile.addRedisCommands(1);
+        return redisTemplate.execute(script, RedisSerializer.byteArray(), resultSerializer, keys, args);
+    }
+
+    /**
+     * Encode a value exactly as RedisTemplate stores it, for use as a script argument
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    private static byte[] asciiBytes(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] utf8Bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
 }
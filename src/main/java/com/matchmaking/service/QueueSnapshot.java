@@ -0,0 +1,225 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar tick-time copy of a queue, in queue order.
+ * The attributes pairing reads are held in parallel primitive arrays and regions are
+ * interned to small ordinals, so the hot loop walks contiguous ints instead of following
+ * Player references and comparing region strings. Player objects are only looked up to
+ * build the matches that were found.
+ *
+ * A shard replica keeps one snapshot for good and grows it in place: arrivals are
+ * appended, so index order stays queue order, and players who leave become holes
+ * whose Player reference is null.
+ */
+public final class QueueSnapshot {
+
+    private Player[] players;
+    private int[] skill;
+    private int[] latency;
+    private short[] regionOrdinal;
+    private long[] queuedAtMillis;
+    private String[] regions;
+    private Map<String, Short> ordinals;
+    private int size;
+    private long takenAtMillis;
+
+    private QueueSnapshot(Player[] players, int[] skill, int[] latency, short[] regionOrdinal,
+                          long[] queuedAtMillis, String[] regions, long takenAtMillis) {
+        this.players = players;
+        this.skill = skill;
+        this.latency = latency;
+        this.regionOrdinal = regionOrdinal;
+        this.queuedAtMillis = queuedAtMillis;
+        this.regions = regions;
+        this.size = players.length;
+        this.takenAtMillis = takenAtMillis;
+    }
+
+    /**
+     * Snapshot players in queue order.
+     * Players without a join time count as having joined when the snapshot was taken.
+     */
+    public static QueueSnapshot of(List<Player> queuedPlayers) {
+        return of(queuedPlayers, System.currentTimeMillis());
+    }
+
+    /**
+     * Snapshot players in queue order as of the given time, against which wait times are measured
+     */
+    public static QueueSnapshot of(List<Player> queuedPlayers, long now) {
+        int size = queuedPlayers.size();
+        Player[] players = new Player[size];
+        int[] skill = new int[size];
+        int[] latency = new int[size];
+        short[] regionOrdinal = new short[size];
+        long[] queuedAtMillis = new long[size];
+        Map<String, Short> ordinals = new HashMap<>();
+        List<String> regions = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            Player player = queuedPlayers.get(i);
+            players[i] = player;
+            skill[i] = player.getSkillRating();
+            latency[i] = player.getLatency();
+            queuedAtMillis[i] = player.getQueuedAt() != null ? player.getQueuedAt().toEpochMilli() : now;
+
+            Short ordinal = ordinals.get(player.getRegion());
+            if (ordinal == null) {
+                if (regions.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Too many regions in one queue snapshot");
+                }
+                ordinal = (short) regions.size();
+                ordinals.put(player.getRegion(), ordinal);
+                regions.add(player.getRegion());
+            }
+            regionOrdinal[i] = ordinal;
+        }
+
+        return new QueueSnapshot(players, skill, latency, regionOrdinal, queuedAtMillis,
+            regions.toArray(new String[0]), now);
+    }
+
+    /**
+     * Number of indexes, holes included
+     */
+    public int size() {
+        return size;
+    }
+
+    public int skill(int index) {
+        return skill[index];
+    }
+
+    public int latency(int index) {
+        return latency[index];
+    }
+
+    public int regionOrdinal(int index) {
+        return regionOrdinal[index];
+    }
+
+    public long queuedAtMillis(int index) {
+        return queuedAtMillis[index];
+    }
+
+    /**
+     * Number of distinct regions, ordinals run from 0 to regionCount() - 1
+     */
+    public int regionCount() {
+        return regions.length;
+    }
+
+    public String region(int ordinal) {
+        return regions[ordinal];
+    }
+
+    public long getTakenAtMillis() {
+        return takenAtMillis;
+    }
+
+    /**
+     * Move the time against which wait times are measured, e.g. to the start of a tick
+     */
+    void advanceTo(long now) {
+        takenAtMillis = now;
+    }
+
+    /**
+     * Append a player behind everyone in the snapshot
+     *
+     * @return the player's index
+     */
+    int append(Player player, long now) {
+        if (size == players.length) {
+            int capacity = Math.max(16, size * 2);
+            players = Arrays.copyOf(players, capacity);
+            skill = Arrays.copyOf(skill, capacity);
+            latency = Arrays.copyOf(latency, capacity);
+            regionOrdinal = Arrays.copyOf(regionOrdinal, capacity);
+            queuedAtMillis = Arrays.copyOf(queuedAtMillis, capacity);
+        }
+        if (ordinals == null) {
+            ordinals = new HashMap<>();
+            for (int i = 0; i < regions.length; i++) {
+                ordinals.put(regions[i], (short) i);
+            }
+        }
+
+        Short ordinal = ordinals.get(player.getRegion());
+        if (ordinal == null) {
+            if (regions.length > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many regions in one queue snapshot");
+            }
+            ordinal = (short) regions.length;
+            ordinals.put(player.getRegion(), ordinal);
+            regions = Arrays.copyOf(regions, regions.length + 1);
+            regions[ordinal] = player.getRegion();
+        }
+
+        int index = size++;
+        players[index] = player;
+        skill[index] = player.getSkillRating();
+        latency[index] = player.getLatency();
+        regionOrdinal[index] = ordinal;
+        queuedAtMillis[index] = player.getQueuedAt() != null ? player.getQueuedAt().toEpochMilli() : now;
+        return index;
+    }
+
+    /**
+     * Turn an index into a hole. Its columns are kept, so indexes built over it can still drop it.
+     */
+    void clear(int index) {
+        players[index] = null;
+    }
+
+    /**
+     * Columnar copy of some of this snapshot's players, e.g. one skill band.
+     * Index i of the copy is {@code orders[i]} here; regions keep their ordinals.
+     */
+    public QueueSnapshot select(int[] orders) {
+        int size = orders.length;
+        Player[] selectedPlayers = new Player[size];
+        int[] selectedSkill = new int[size];
+        int[] selectedLatency = new int[size];
+        short[] selectedRegion = new short[size];
+        long[] selectedQueuedAt = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            int order = orders[i];
+            selectedPlayers[i] = players[order];
+            selectedSkill[i] = skill[order];
+            selectedLatency[i] = latency[order];
+            selectedRegion[i] = regionOrdinal[order];
+            selectedQueuedAt[i] = queuedAtMillis[order];
+        }
+
+        return new QueueSnapshot(selectedPlayers, selectedSkill, selectedLatency, selectedRegion,
+            selectedQueuedAt, regions, takenAtMillis);
+    }
+
+    /**
+     * The player behind an index, for building matches, or null for a hole
+     */
+    public Player player(int index) {
+        return players[index];
+    }
+
+    /**
+     * The players behind a group of indexes, in the given order
+     */
+    public List<Player> players(int[] indexes, int count) {
+        List<Player> group = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            group.add(players[indexes[i]]);
+        }
+        return group;
+    }
+}
@@ -1,14 +1,18 @@
 package com.matchmaking.service;
 
+import com.matchmaking.service.ReplicaReadService.ReadEndpoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.TimeUnit;
 
 /**
- * Redis caching service for frequently accessed data
+ * Redis caching service for frequently accessed data.
+ * Leaderboard, rank and total match reads go to replicas when ReplicaReadService allows.
  */
 @Slf4j
 @Service
@@ -16,9 +20,14 @@ import java.util.concurrent.TimeUnit;
 public class RedisCacheService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ReplicaReadService replicaReadService;
+    private final StripedCounters stripedCounters;
     
     private static final String STATS_KEY_PREFIX = "matchmaking:stats:";
     private static final String LEADERBOARD_KEY = "matchmaking:leaderboard";
+    static final String TOTAL_MATCHES_COUNTER = "total_matches";
+    // Single key the match counter lived in before it was striped
+    private static final String LEGACY_TOTAL_MATCHES_KEY = STATS_KEY_PREFIX + "total_matches";
 
     /**
      * Cache player statistics
@@ -47,7 +56,7 @@ public class RedisCacheService {
      * Get top players from leaderboard
      */
     public Object getTopPlayers(int limit) {
-        return redisTemplate.opsForZSet()
+        return replicaReadService.templateFor(ReadEndpoint.LEADERBOARD).opsForZSet()
             .reverseRangeWithScores(LEADERBOARD_KEY, 0, limit - 1);
     }
 
@@ -55,22 +64,36 @@ public class RedisCacheService {
      * Get player rank
      */
     public Long getPlayerRank(String playerId) {
-        Long rank = redisTemplate.opsForZSet().reverseRank(LEADERBOARD_KEY, playerId);
+        Long rank = replicaReadService.templateFor(ReadEndpoint.RANK).opsForZSet().reverseRank(LEADERBOARD_KEY, playerId);
         return rank != null ? rank + 1 : null;
     }
 
     /**
      * Increment match counter
      */
-    public void incrementMatchCounter() {
-        redisTemplate.opsForValue().increment("matchmaking:stats:total_matches");
+    public void incrementMatchCounter(long matches) {
+        stripedCounters.increment(TOTAL_MATCHES_COUNTER, matches);
     }
 
     /**
-     * Get total matches created
+     * Fold the pre-striping match counter into the stripes once, so the total survives the upgrade
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateTotalMatches() {
+        try {
+            long folded = stripedCounters.fold(TOTAL_MATCHES_COUNTER, LEGACY_TOTAL_MATCHES_KEY);
+            if (folded > 0) {
+                log.info("Folded {} matches from {} into the striped counter", folded, LEGACY_TOTAL_MATCHES_KEY);
+            }
+        } catch (Exception e) {
+            log.warn("Could not migrate the total matches counter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get total matches created, summed over the counter stripes
      */
     public Long getTotalMatches() {
-        Object value = redisTemplate.opsForValue().get("matchmaking:stats:total_matches");
-        return value != null ? Long.parseLong(value.toString()) : 0L;
+        return stripedCounters.get(TOTAL_MATCHES_COUNTER, replicaReadService.templateFor(ReadEndpoint.TOTAL_MATCHES));
     }
 }
@@ -1,15 +1,34 @@
 package com.matchmaking.service;
 
+import com.matchmaking.metrics.TickProfile;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Distributed locking service using Redis
  * Prevents race conditions in concurrent matchmaking
+ *
+ * Every acquisition stores a unique owner token, so only the holder can renew or
+ * release the lock, and gets a fencing token from a per-lock counter. While a
+ * callback runs, a watchdog renews the lease, so long ticks keep the lock without a
+ * long TTL; writes that check the fencing token reject a holder whose lease lapsed.
  */
 @Slf4j
 @Service
@@ -17,52 +36,147 @@ import java.util.concurrent.TimeUnit;
 public class RedisLockService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisScript<Long> acquireLockScript;
+    private final RedisScript<Long> renewLockScript;
+    private final RedisScript<Long> releaseLockScript;
+    private final ScheduledExecutorService watchdog =
+        Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("lock-watchdog-"));
     
     private static final String LOCK_KEY_PREFIX = "matchmaking:lock:";
-    private static final long LOCK_TIMEOUT = 5000; // 5 seconds
+    private static final String FENCE_KEY_PREFIX = "matchmaking:lock-fence:";
+
+    // Lease of an acquired lock; the watchdog renews it every third of the lease
+    @Value("${matchmaking.lock.lease-ms:5000}")
+    private long leaseMs;
 
     /**
      * Acquire a distributed lock
+     *
+     * @return the lease, or null if the lock is held by someone else
      */
-    public boolean acquireLock(String lockName) {
-        String lockKey = LOCK_KEY_PREFIX + lockName;
-        Boolean acquired = redisTemplate.opsForValue()
-            .setIfAbsent(lockKey, "locked", LOCK_TIMEOUT, TimeUnit.MILLISECONDS);
+    public LockLease acquireLock(String lockName) {
+        String owner = UUID.randomUUID().toString();
+        String fenceKey = FENCE_KEY_PREFIX + lockName;
+        Long fencingToken = executeScript(acquireLockScript, List.of(LOCK_KEY_PREFIX + lockName, fenceKey),
+            utf8Bytes(owner), utf8Bytes(Long.toString(leaseMs)));
+        TickProfile.addRedisCommands(1);
         
-        if (Boolean.TRUE.equals(acquired)) {
-            log.debug("Acquired lock: {}", lockName);
-            return true;
+        if (fencingToken != null && fencingToken > 0) {
+            log.debug("Acquired lock: {} (fencing token {})", lockName, fencingToken);
+            return new LockLease(lockName, owner, fencingToken, fenceKey);
         }
         
-        return false;
+        return null;
     }
 
     /**
-     * Release a distributed lock
+     * Extend the lease of a held lock
+     *
+     * @return false if the lock expired or was taken over by another owner
      */
-    public void releaseLock(String lockName) {
-        String lockKey = LOCK_KEY_PREFIX + lockName;
-        redisTemplate.delete(lockKey);
-        log.debug("Released lock: {}", lockName);
+    public boolean renewLock(LockLease lease) {
+        Long renewed = executeScript(renewLockScript, List.of(LOCK_KEY_PREFIX + lease.lockName()),
+            utf8Bytes(lease.owner()), utf8Bytes(Long.toString(leaseMs)));
+        return renewed != null && renewed > 0;
+    }
+
+    /**
+     * Release a distributed lock if it is still held by this lease
+     */
+    public void releaseLock(LockLease lease) {
+        Long released = executeScript(releaseLockScript, List.of(LOCK_KEY_PREFIX + lease.lockName()),
+            utf8Bytes(lease.owner()));
+        TickProfile.addRedisCommands(1);
+        
+        if (released != null && released > 0) {
+            log.debug("Released lock: {}", lease.lockName());
+        } else {
+            log.warn("Lock {} expired before release (fencing token {})", lease.lockName(), lease.fencingToken());
+        }
     }
 
     /**
      * Execute code with lock protection
      */
     public <T> T executeWithLock(String lockName, LockCallback<T> callback) {
-        if (acquireLock(lockName)) {
-            try {
-                return callback.execute();
-            } finally {
-                releaseLock(lockName);
-            }
-        } else {
+        return executeWithFencedLock(lockName, lease -> callback.execute());
+    }
+
+    /**
+     * Execute code with lock protection, renewing the lease until it returns.
+     * The callback gets the lease so its writes can be fenced.
+     */
+    public <T> T executeWithFencedLock(String lockName, FencedLockCallback<T> callback) {
+        LockLease lease = acquireLock(lockName);
+        if (lease == null) {
             throw new RuntimeException("Failed to acquire lock: " + lockName);
         }
+        return runWithLease(lease, callback);
+    }
+
+    /**
+     * Like executeWithFencedLock, but skips the callback if the lock is busy
+     *
+     * @return the callback's result, or empty if another owner holds the lock
+     */
+    public <T> Optional<T> tryExecuteWithFencedLock(String lockName, FencedLockCallback<T> callback) {
+        LockLease lease = acquireLock(lockName);
+        if (lease == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(runWithLease(lease, callback));
+    }
+
+    private <T> T runWithLease(LockLease lease, FencedLockCallback<T> callback) {
+        long renewInterval = Math.max(1, leaseMs / 3);
+        ScheduledFuture<?> renewal = watchdog.scheduleAtFixedRate(
+            () -> renew(lease), renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+        try {
+            return callback.execute(lease);
+        } finally {
+            renewal.cancel(false);
+            releaseLock(lease);
+        }
+    }
+
+    private void renew(LockLease lease) {
+        boolean renewed;
+        try {
+            renewed = renewLock(lease);
+        } catch (Exception e) {
+            // Transient failure, the next run retries while the lease lasts
+            log.warn("Failed to renew lock {}: {}", lease.lockName(), e.getMessage());
+            return;
+        }
+        
+        if (!renewed) {
+            log.warn("Lost lock {} while holding it (fencing token {})", lease.lockName(), lease.fencingToken());
+            // Throwing cancels further renewals of this lease
+            throw new IllegalStateException("Lost lock " + lease.lockName());
+        }
+    }
+
+    private Long executeScript(RedisScript<Long> script, List<String> keys, Object... args) {
+        return redisTemplate.execute(
+            script, RedisSerializer.byteArray(), new GenericToStringSerializer<>(Long.class), keys, args);
+    }
+
+    private static byte[] utf8Bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
     }
 
     @FunctionalInterface
     public interface LockCallback<T> {
         T execute();
     }
+
+    @FunctionalInterface
+    public interface FencedLockCallback<T> {
+        T execute(LockLease lease);
+    }
 }
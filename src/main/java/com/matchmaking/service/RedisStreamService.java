@@ -21,12 +21,9 @@ import java.util.Map;
 public class RedisStreamService {
 
     private final RedisTemplate<String, Object> redisTemplate;
-    
-    private static final String MATCH_STREAM = "matchmaking:stream:matches";
-    private static final String PLAYER_STREAM_PREFIX = "matchmaking:stream:player:";
 
     /**
-     * Publish match creation event to stream
+     * Publish match creation event to the match stream of its region shard
      */
     public void publishMatchCreated(Match match) {
         Map<String, Object> matchData = new HashMap<>();
@@ -36,11 +33,12 @@ public class RedisStreamService {
         matchData.put("averageLatency", match.getAverageLatency());
         matchData.put("region", match.getServerRegion());
         matchData.put("timestamp", match.getCreatedAt().toString());
+        matchData.put("match", match);
         
         ObjectRecord<String, Map<String, Object>> record = StreamRecords
             .newRecord()
             .ofObject(matchData)
-            .withStreamKey(MATCH_STREAM);
+            .withStreamKey(ShardKeys.matchStream(match.getServerRegion()));
         
         redisTemplate.opsForStream().add(record);
         
@@ -56,7 +54,7 @@ public class RedisStreamService {
      * Publish match found notification to player-specific stream
      */
     private void publishPlayerMatchFound(String playerId, Match match) {
-        String playerStream = PLAYER_STREAM_PREFIX + playerId;
+        String playerStream = ShardKeys.playerStream(match.getServerRegion(), playerId);
         
         Map<String, Object> notification = new HashMap<>();
         notification.put("event", "MATCH_FOUND");
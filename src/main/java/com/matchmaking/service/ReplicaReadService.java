@@ -0,0 +1,142 @@
+package com.matchmaking.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Routes read-only endpoint traffic to Redis replicas within a staleness budget.
+ * Every node writes a heartbeat timestamp to its own key on the primary and reads it
+ * back from the replica connection; how far the replica's copy trails this node's
+ * previous write is the estimated replica lag. Both timestamps come from this node's
+ * clock, so other nodes' heartbeats and clock skew between nodes do not affect it.
+ * An endpoint reads from replicas while that lag is within its budget,
+ * matchmaking.redis.staleness.<endpoint>-ms, and from the primary otherwise,
+ * so a lagging or unreachable replica only costs primary capacity, never correctness.
+ */
+@Slf4j
+@Service
+public class ReplicaReadService {
+
+    private static final String HEARTBEAT_KEY_PREFIX = "matchmaking:replica-heartbeat:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, Object> replicaRedisTemplate;
+    private final ShardOwnershipService shardOwnershipService;
+    private final Environment environment;
+
+    @Value("${matchmaking.redis.read-routing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${matchmaking.redis.read-routing.heartbeat-interval-ms:500}")
+    private long heartbeatIntervalMs;
+
+    private final Map<ReadEndpoint, Long> budgets = new EnumMap<>(ReadEndpoint.class);
+
+    private volatile long replicaLagMs = Long.MAX_VALUE;
+    private volatile long measuredAt;
+    private long lastHeartbeat;
+    private String heartbeatKey;
+
+    public ReplicaReadService(
+            RedisTemplate<String, Object> redisTemplate,
+            @Qualifier("replicaRedisTemplate") RedisTemplate<String, Object> replicaRedisTemplate,
+            ShardOwnershipService shardOwnershipService,
+            Environment environment) {
+        this.redisTemplate = redisTemplate;
+        this.replicaRedisTemplate = replicaRedisTemplate;
+        this.shardOwnershipService = shardOwnershipService;
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (ReadEndpoint endpoint : ReadEndpoint.values()) {
+            budgets.put(endpoint, environment.getProperty(
+                "matchmaking.redis.staleness." + endpoint.property + "-ms", Long.class, endpoint.defaultBudgetMs));
+        }
+        heartbeatKey = HEARTBEAT_KEY_PREFIX + shardOwnershipService.getNodeId();
+    }
+
+    /**
+     * The template an endpoint should read with: the replicas while their lag is
+     * within the endpoint's staleness budget, the primary otherwise
+     */
+    public RedisTemplate<String, Object> templateFor(ReadEndpoint endpoint) {
+        return canReadFromReplica(endpoint) ? replicaRedisTemplate : redisTemplate;
+    }
+
+    public boolean canReadFromReplica(ReadEndpoint endpoint) {
+        if (!enabled) {
+            return false;
+        }
+        // A measurement older than a few heartbeats says nothing about the replica now
+        if (System.currentTimeMillis() - measuredAt > heartbeatIntervalMs * 3) {
+            return false;
+        }
+        return replicaLagMs <= budgets.get(endpoint);
+    }
+
+    /**
+     * Estimated replica lag in milliseconds, or Long.MAX_VALUE if unknown
+     */
+    public long getReplicaLagMs() {
+        return replicaLagMs;
+    }
+
+    /**
+     * Compare the replica's copy of this node's heartbeat with its previous write, then write a new one.
+     * The key expires after a few missed heartbeats, so keys of departed nodes do not pile up.
+     */
+    @Scheduled(fixedDelayString = "${matchmaking.redis.read-routing.heartbeat-interval-ms:500}")
+    public synchronized void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Object replicaValue = replicaRedisTemplate.opsForValue().get(heartbeatKey);
+            if (lastHeartbeat > 0) {
+                long replicated = replicaValue != null ? Long.parseLong(replicaValue.toString()) : 0;
+                replicaLagMs = replicated > 0 ? Math.max(0, lastHeartbeat - replicated) : Long.MAX_VALUE;
+                measuredAt = System.currentTimeMillis();
+            }
+
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForValue().set(heartbeatKey, Long.toString(now), Duration.ofMillis(heartbeatIntervalMs * 10));
+            lastHeartbeat = now;
+        } catch (Exception e) {
+            replicaLagMs = Long.MAX_VALUE;
+            log.warn("Replica heartbeat failed, reading from the primary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Read-only endpoints and their default staleness budgets
+     */
+    public enum ReadEndpoint {
+        QUEUE_STATUS("queue-status", 2000),
+        QUEUE_POSITION("queue-position", 1000),
+        MATCH_RESULT("match-result", 500),
+        LEADERBOARD("leaderboard", 5000),
+        RANK("rank", 5000),
+        TOTAL_MATCHES("total-matches", 10000);
+
+        private final String property;
+        private final long defaultBudgetMs;
+
+        ReadEndpoint(String property, long defaultBudgetMs) {
+            this.property = property;
+            this.defaultBudgetMs = defaultBudgetMs;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.matchmaking.service;
+
+/**
+ * Redis key layout of the region shards.
+ * Every key that belongs to a shard carries the region as a hash tag
+ * (matchmaking:{region}:...), so under Redis Cluster all of a shard's keys live in
+ * one slot and its scripts, MGETs and fenced commits stay single-slot operations.
+ * Keys shared by all shards are plain single keys.
+ */
+final class ShardKeys {
+
+    static final String REGIONS = "matchmaking:regions";
+
+    // Pub/sub channel that carries arrivals to the replica owning their shard
+    static final String ARRIVALS = "matchmaking:arrivals";
+
+    private ShardKeys() {
+    }
+
+    static String queue(String region) {
+        return shard(region) + "queue";
+    }
+
+    static String skillIndex(String region) {
+        return shard(region) + "queue-skill";
+    }
+
+    static String mutationSequence(String region) {
+        return shard(region) + "queue-seq";
+    }
+
+    static String mutationStream(String region) {
+        return shard(region) + "stream:queue";
+    }
+
+    static String player(String region, String playerId) {
+        return shard(region) + "player:" + playerId;
+    }
+
+    static String match(String region, String playerId) {
+        return shard(region) + "match:" + playerId;
+    }
+
+    static String playerStream(String region, String playerId) {
+        return shard(region) + "stream:player:" + playerId;
+    }
+
+    static String matchStream(String region) {
+        return shard(region) + "stream:matches";
+    }
+
+    /**
+     * Region a player is queued in, across all shards. Lives outside every shard's slot,
+     * so it is claimed and released beside the shard scripts rather than inside them.
+     */
+    static String membership(String playerId) {
+        return "matchmaking:queued:" + playerId;
+    }
+
+    /**
+     * Name of a shard's tick lock; its lock and fencing keys share the region's slot.
+     * Skill bands of a region each have their own lock.
+     */
+    static String shardLock(MatchShard shard) {
+        String lock = "matchmaking-process:{" + shard.region() + "}";
+        return shard.isBanded() ? lock + ":band-" + shard.band() : lock;
+    }
+
+    private static String shard(String region) {
+        return "matchmaking:{" + region + "}:";
+    }
+}
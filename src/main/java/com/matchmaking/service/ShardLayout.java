@@ -0,0 +1,76 @@
+package com.matchmaking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the configured regions into the shards that replicas tick.
+ * Without matchmaking.shards.skill-band-edges every region is one shard. With edges,
+ * e.g. 1200,1500,1800, every region is split into skill bands below, between and above
+ * them, so a region's tick work can be spread over several replicas. Every replica
+ * must use the same layout, since ownership is computed from it locally.
+ */
+@Component
+public class ShardLayout {
+
+    private final List<Integer> edges;
+    private final int reach;
+    private final List<MatchShard> shards = new ArrayList<>();
+
+    public ShardLayout(
+            @Value("${matchmaking.regions:us-east,us-west,eu-west,ap-southeast}") List<String> regions,
+            @Value("${matchmaking.shards.skill-band-edges:}") List<Integer> edges,
+            @Value("${matchmaking.shards.band-reach:${matchmaking.skill.max-gap:200}}") int reach) {
+        for (int i = 1; i < edges.size(); i++) {
+            if (edges.get(i) <= edges.get(i - 1)) {
+                throw new IllegalArgumentException("Skill band edges must be increasing: " + edges);
+            }
+        }
+        this.edges = List.copyOf(edges);
+        this.reach = reach;
+        regions.forEach(region -> shards.addAll(shardsOf(region)));
+    }
+
+    /**
+     * Every shard of the configured regions, in a fixed order shared by all replicas
+     */
+    public List<MatchShard> getShards() {
+        return List.copyOf(shards);
+    }
+
+    /**
+     * The shards of one region, lowest band first
+     */
+    public List<MatchShard> shardsOf(String region) {
+        if (edges.isEmpty()) {
+            return List.of(MatchShard.whole(region));
+        }
+
+        List<MatchShard> bands = new ArrayList<>(edges.size() + 1);
+        int min = Integer.MIN_VALUE;
+        for (int band = 0; band <= edges.size(); band++) {
+            int max = band < edges.size() ? edges.get(band) : Integer.MAX_VALUE;
+            bands.add(new MatchShard(region, band, min, max, band < edges.size() ? reach : 0));
+            min = max;
+        }
+        return bands;
+    }
+
+    /**
+     * The shard that owns a player of the given region and skill rating
+     */
+    public MatchShard shardFor(String region, int skillRating) {
+        if (edges.isEmpty()) {
+            return MatchShard.whole(region);
+        }
+
+        int band = 0;
+        while (band < edges.size() && skillRating >= edges.get(band)) {
+            band++;
+        }
+        return shardsOf(region).get(band);
+    }
+}
@@ -0,0 +1,223 @@
+package com.matchmaking.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Spreads the shards of ShardLayout across the live matchmaking replicas.
+ * Every replica heartbeats into a Redis sorted set scored by time, and members that
+ * miss matchmaking.cluster.node-timeout-ms are dropped. Shards are handed out in the
+ * layout's order, each to the live replica with the highest rendezvous hash for it
+ * that is still below its quota, so every replica owns the same number of shards give
+ * or take one. Every replica computes the same assignment from the same node list, so
+ * no coordination round is needed. Ownership only decides who ticks a shard; the
+ * fenced shard lock still guards commits while replicas disagree during a rebalance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShardOwnershipService {
+
+    private static final String NODES_KEY = "matchmaking:nodes";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ShardLayout shardLayout;
+
+    @Value("${matchmaking.cluster.shard-ownership.enabled:true}")
+    private boolean enabled;
+
+    // Falls back to the pod name, then to a random id
+    @Value("${matchmaking.cluster.node-id:${HOSTNAME:}}")
+    private String configuredNodeId;
+
+    @Value("${matchmaking.cluster.node-timeout-ms:10000}")
+    private long nodeTimeoutMs;
+
+    @Getter
+    private String nodeId;
+
+    @Getter
+    private volatile List<String> liveNodes = List.of();
+
+    // Assignment of the layout's shards, recomputed whenever the live node list changes
+    private volatile Assignment assignment;
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank()
+            ? configuredNodeId
+            : UUID.randomUUID().toString();
+        log.info("Matchmaking node id: {}", nodeId);
+    }
+
+    /**
+     * Renew this replica's membership and refresh the list of live replicas
+     */
+    @Scheduled(fixedDelayString = "${matchmaking.cluster.heartbeat-interval-ms:2000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().add(NODES_KEY, nodeId, now);
+            redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, Double.NEGATIVE_INFINITY, now - nodeTimeoutMs);
+            Set<Object> members = redisTemplate.opsForZSet().range(NODES_KEY, 0, -1);
+
+            List<String> nodes = new ArrayList<>();
+            if (members != null) {
+                members.forEach(member -> nodes.add(member.toString()));
+            }
+            nodes.sort(null);
+
+            if (!nodes.equals(liveNodes)) {
+                log.info("Live matchmaking nodes changed to {}", nodes);
+            }
+            liveNodes = List.copyOf(nodes);
+        } catch (Exception e) {
+            log.warn("Matchmaking node heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether this replica should tick a shard.
+     * Until the first heartbeat succeeds every shard counts as owned, leaving
+     * exclusion to the shard lock.
+     */
+    public boolean ownsShard(String shard) {
+        if (!enabled) {
+            return true;
+        }
+        return liveNodes.isEmpty() || nodeId.equals(ownerOf(shard));
+    }
+
+    /**
+     * The live replica that owns a shard, or null if no replica is known.
+     * Shards outside the layout, e.g. of a region dropped from the configuration, go to
+     * their rendezvous owner.
+     */
+    public String ownerOf(String shard) {
+        List<String> nodes = liveNodes;
+        Assignment current = assignment;
+        if (current == null || current.nodes() != nodes) {
+            List<String> shards = shardLayout.getShards().stream().map(MatchShard::id).toList();
+            current = new Assignment(nodes, assign(shards, nodes));
+            assignment = current;
+        }
+        String owner = current.owners().get(shard);
+        return owner != null ? owner : ownerOf(shard, nodes);
+    }
+
+    /**
+     * Give every shard, in order, to the replica with the highest rendezvous hash for it
+     * among those below their quota. Quotas are the shard count divided by the replica
+     * count, and the first replicas to exceed that share the remainder, one shard each.
+     */
+    static Map<String, String> assign(List<String> shards, List<String> nodes) {
+        Map<String, String> owners = new HashMap<>();
+        if (nodes.isEmpty()) {
+            return owners;
+        }
+
+        int quota = shards.size() / nodes.size();
+        int extra = shards.size() % nodes.size();
+        Map<String, Integer> load = new HashMap<>();
+
+        for (String shard : shards) {
+            String owner = null;
+            long best = Long.MIN_VALUE;
+            long shardHash = hash(shard);
+
+            for (String node : nodes) {
+                int owned = load.getOrDefault(node, 0);
+                if (owned > quota || (owned == quota && extra == 0)) {
+                    continue;
+                }
+                long weight = mix(hash(node) ^ shardHash);
+                if (owner == null || weight > best) {
+                    owner = node;
+                    best = weight;
+                }
+            }
+
+            if (load.merge(owner, 1, Integer::sum) > quota) {
+                extra--;
+            }
+            owners.put(shard, owner);
+        }
+        return owners;
+    }
+
+    static String ownerOf(String shard, List<String> nodes) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        long shardHash = hash(shard);
+
+        for (String node : nodes) {
+            long weight = mix(hash(node) ^ shardHash);
+            if (owner == null || weight > best) {
+                owner = node;
+                best = weight;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Leave the cluster right away so the remaining replicas take over this one's shards
+     */
+    @PreDestroy
+    public void leave() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+        } catch (Exception e) {
+            log.warn("Could not deregister matchmaking node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private record Assignment(List<String> nodes, Map<String, String> owners) {
+    }
+
+    /**
+     * 64-bit FNV-1a, stable across JVMs and restarts
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 finalizer, spreads the combined hash over all bits
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
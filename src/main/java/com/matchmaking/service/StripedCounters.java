@@ -0,0 +1,110 @@
+package com.matchmaking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counters spread over matchmaking.counters.stripes Redis keys, each under its own hash tag.
+ * Every thread sticks to one randomly chosen stripe, so concurrent writers on one or many
+ * nodes update different keys, and under Redis Cluster different primaries. Reads sum the
+ * stripes with one MGET and are cached locally for matchmaking.counters.cache-ttl-ms.
+ */
+@Component
+public class StripedCounters {
+
+    private static final String KEY_PREFIX = "matchmaking:counter:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int stripes;
+    private final long cacheTtlMs;
+
+    private final ThreadLocal<Integer> threadStripe;
+    private final Map<String, CachedTotal> totals = new ConcurrentHashMap<>();
+
+    public StripedCounters(
+            RedisTemplate<String, Object> redisTemplate,
+            @Value("${matchmaking.counters.stripes:16}") int stripes,
+            @Value("${matchmaking.counters.cache-ttl-ms:1000}") long cacheTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.stripes = Math.max(1, stripes);
+        this.cacheTtlMs = cacheTtlMs;
+        this.threadStripe = ThreadLocal.withInitial(() -> ThreadLocalRandom.current().nextInt(this.stripes));
+    }
+
+    /**
+     * Add to a counter on the calling thread's stripe
+     */
+    public void increment(String name, long delta) {
+        redisTemplate.opsForValue().increment(stripeKey(name, threadStripe.get()), delta);
+    }
+
+    /**
+     * Move the value of a key that held the counter before it was striped into stripe 0.
+     * GETDEL hands the value to exactly one caller, so nodes starting together fold it once.
+     *
+     * @return the value folded in, 0 when the old key no longer exists
+     */
+    public long fold(String name, String legacyKey) {
+        Object value = redisTemplate.opsForValue().getAndDelete(legacyKey);
+        if (value == null) {
+            return 0;
+        }
+
+        long legacy = Long.parseLong(value.toString());
+        if (legacy != 0) {
+            redisTemplate.opsForValue().increment(stripeKey(name, 0), legacy);
+        }
+        totals.remove(name);
+        return legacy;
+    }
+
+    /**
+     * Sum of a counter's stripes, served from the local cache while it is fresh
+     */
+    public long get(String name) {
+        return get(name, redisTemplate);
+    }
+
+    /**
+     * Sum of a counter's stripes read with the given template, e.g. a replica template
+     */
+    public long get(String name, RedisTemplate<String, Object> reads) {
+        long now = System.currentTimeMillis();
+        CachedTotal cached = totals.get(name);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+
+        List<String> keys = new ArrayList<>(stripes);
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            keys.add(stripeKey(name, stripe));
+        }
+
+        long total = 0;
+        List<Object> values = reads.opsForValue().multiGet(keys);
+        if (values != null) {
+            for (Object value : values) {
+                if (value != null) {
+                    total += Long.parseLong(value.toString());
+                }
+            }
+        }
+
+        totals.put(name, new CachedTotal(total, now + cacheTtlMs));
+        return total;
+    }
+
+    private static String stripeKey(String name, int stripe) {
+        return KEY_PREFIX + "{" + name + ":" + stripe + "}";
+    }
+
+    private record CachedTotal(long value, long expiresAt) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits an N-vs-N lobby into two equal-size teams with as little difference in total
+ * skill as possible. Lobbies of up to matchmaking.match.teams.exact-max-players are
+ * solved exactly by enumerating every split; larger ones get a greedy split refined by
+ * pairwise swaps until no swap helps or matchmaking.match.teams.time-budget-micros runs out.
+ */
+@Component
+public class TeamBalancer {
+
+    private final boolean enabled;
+    private final int exactMaxPlayers;
+    private final long timeBudgetNanos;
+
+    public TeamBalancer(
+            @Value("${matchmaking.match.teams.enabled:true}") boolean enabled,
+            @Value("${matchmaking.match.teams.exact-max-players:12}") int exactMaxPlayers,
+            @Value("${matchmaking.match.teams.time-budget-micros:100}") long timeBudgetMicros) {
+        this.enabled = enabled;
+        // Exact enumeration walks C(n-1, n/2-1) splits, keep it well inside an int mask
+        this.exactMaxPlayers = Math.min(exactMaxPlayers, 24);
+        this.timeBudgetNanos = timeBudgetMicros * 1000;
+    }
+
+    /**
+     * Two balanced teams for the lobby, or null for lobbies that are not split into teams:
+     * odd sizes and 1v1, where the teams would just be the players
+     */
+    public List<Match.Team> balance(List<Player> players) {
+        int size = players.size();
+        if (!enabled || size < 4 || size % 2 != 0) {
+            return null;
+        }
+
+        int[] skills = new int[size];
+        for (int i = 0; i < size; i++) {
+            skills[i] = players.get(i).getSkillRating();
+        }
+        boolean[] firstTeam = split(skills);
+
+        List<Match.Team> teams = new ArrayList<>(2);
+        for (int team = 0; team < 2; team++) {
+            List<String> playerIds = new ArrayList<>(size / 2);
+            long totalSkill = 0;
+            for (int i = 0; i < size; i++) {
+                if (firstTeam[i] == (team == 0)) {
+                    playerIds.add(players.get(i).getPlayerId());
+                    totalSkill += skills[i];
+                }
+            }
+            teams.add(Match.Team.builder()
+                .teamId(team)
+                .playerIds(playerIds)
+                .averageSkillRating((int) (totalSkill / playerIds.size()))
+                .build());
+        }
+        return teams;
+    }
+
+    /**
+     * Assignment of an even number of players to two equal-size teams
+     *
+     * @return for every player, whether they are on the first team
+     */
+    boolean[] split(int[] skills) {
+        return skills.length <= exactMaxPlayers ? splitExact(skills) : splitHeuristic(skills);
+    }
+
+    /**
+     * Player 0 always goes to the first team, which halves the search, and the remaining
+     * n/2 - 1 members of that team are enumerated as fixed-popcount masks (Gosper's hack)
+     */
+    static boolean[] splitExact(int[] skills) {
+        int n = skills.length;
+        int others = n - 1;
+        int pick = n / 2 - 1;
+        long total = 0;
+        for (int skill : skills) {
+            total += skill;
+        }
+
+        int bestMask = 0;
+        long bestDifference = Long.MAX_VALUE;
+        int limit = 1 << others;
+        int mask = (1 << pick) - 1;
+        while (mask < limit) {
+            long firstTeam = skills[0];
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                firstTeam += skills[Integer.numberOfTrailingZeros(bits) + 1];
+            }
+            long difference = Math.abs(2 * firstTeam - total);
+            if (difference < bestDifference) {
+                bestDifference = difference;
+                bestMask = mask;
+                if (difference == 0) {
+                    break;
+                }
+            }
+            if (mask == 0) {
+                break;
+            }
+            int lowest = mask & -mask;
+            int ripple = mask + lowest;
+            mask = (((ripple ^ mask) >>> 2) / lowest) | ripple;
+        }
+
+        boolean[] firstTeam = new boolean[n];
+        firstTeam[0] = true;
+        for (int bits = bestMask; bits != 0; bits &= bits - 1) {
+            firstTeam[Integer.numberOfTrailingZeros(bits) + 1] = true;
+        }
+        return firstTeam;
+    }
+
+    /**
+     * Strongest players first, each to the weaker team that still has room, then the best
+     * single swap between the teams is applied while it narrows the gap and time remains
+     */
+    boolean[] splitHeuristic(int[] skills) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        int n = skills.length;
+        int half = n / 2;
+
+        // Sort indexes by descending skill through packed keys
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) -skills[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        // difference is the first team's total minus the second team's
+        boolean[] firstTeam = new boolean[n];
+        int firstCount = 0;
+        int secondCount = 0;
+        long difference = 0;
+        for (long key : keys) {
+            int i = (int) key;
+            if (secondCount == half || (firstCount < half && difference <= 0)) {
+                firstTeam[i] = true;
+                firstCount++;
+                difference += skills[i];
+            } else {
+                secondCount++;
+                difference -= skills[i];
+            }
+        }
+
+        while (System.nanoTime() < deadline) {
+            int bestFirst = -1;
+            int bestSecond = -1;
+            long bestDifference = Math.abs(difference);
+            for (int a = 0; a < n; a++) {
+                if (!firstTeam[a]) {
+                    continue;
+                }
+                for (int b = 0; b < n; b++) {
+                    if (firstTeam[b]) {
+                        continue;
+                    }
+                    long swapped = Math.abs(difference - 2L * (skills[a] - skills[b]));
+                    if (swapped < bestDifference) {
+                        bestDifference = swapped;
+                        bestFirst = a;
+                        bestSecond = b;
+                    }
+                }
+            }
+            if (bestFirst < 0) {
+                break;
+            }
+            firstTeam[bestFirst] = false;
+            firstTeam[bestSecond] = true;
+            difference -= 2L * (skills[bestFirst] - skills[bestSecond]);
+        }
+
+        return firstTeam;
+    }
+}
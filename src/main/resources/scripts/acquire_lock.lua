@@ -0,0 +1,8 @@
+-- Acquire a lock for a unique owner and hand out the next fencing token.
+-- KEYS[1] lock key, KEYS[2] fencing counter
+-- ARGV[1] owner token, ARGV[2] lease in milliseconds
+-- Returns the fencing token, or 0 if the lock is held by someone else.
+if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+    return redis.call('INCR', KEYS[2])
+end
+return 0
@@ -0,0 +1,81 @@
+-- Atomically commit a batch of matches formed by one tick of a region shard.
+-- KEYS[1] region queue ZSet, KEYS[2] match stream, KEYS[3] mutation sequence,
+-- KEYS[4] mutation stream, KEYS[5] shard lock fencing counter, KEYS[6] region skill index ZSet,
+-- then for every player of every match, in order: player record, match record, player stream.
+-- ARGV[1] match record TTL in seconds, ARGV[2] approximate mutation and match stream length,
+-- ARGV[3] number of matches, ARGV[4] fencing token of the caller's lock (0 skips the check),
+-- then for every match:
+-- matchId, playerCount, match record, averageSkill, averageLatency, region, timestamp,
+-- followed by the queue member of each player.
+-- A match is committed only if all of its players are still queued and their player
+-- records have not expired; queue entries whose record expired are removed and logged
+-- as departures, so replicas drop them too.
+-- The match stream entry carries the match record, so listeners need no extra read.
+-- The match stream is trimmed to about the mutation stream length and each player
+-- stream to a few entries, so neither grows without bound.
+-- If the lock has been acquired again since the caller's token was issued, nothing is
+-- committed, so a tick that outlived its lease cannot race the new holder.
+-- Returns the 0-based indexes of the matches that were rejected.
+local matchTtl = ARGV[1]
+local streamLength = ARGV[2]
+local matchCount = tonumber(ARGV[3])
+local fencingToken = tonumber(ARGV[4])
+local playerStreamLength = 10
+local arg = 5
+local key = 7
+local rejected = {}
+
+if fencingToken > 0 and tonumber(redis.call('GET', KEYS[5]) or '0') ~= fencingToken then
+    for m = 0, matchCount - 1 do
+        rejected[#rejected + 1] = m
+    end
+    return rejected
+end
+
+for m = 0, matchCount - 1 do
+    local matchId = ARGV[arg]
+    local playerCount = tonumber(ARGV[arg + 1])
+    local matchRecord = ARGV[arg + 2]
+    local region = ARGV[arg + 5]
+    local members = arg + 7
+
+    local allQueued = true
+    for p = 0, playerCount - 1 do
+        local member = ARGV[members + p]
+        if not redis.call('ZSCORE', KEYS[1], member) then
+            allQueued = false
+        elseif redis.call('EXISTS', KEYS[key + p * 3]) == 0 then
+            redis.call('ZREM', KEYS[1], member)
+            redis.call('ZREM', KEYS[6], member)
+            local seq = redis.call('INCR', KEYS[3])
+            redis.call('XADD', KEYS[4], 'MAXLEN', '~', streamLength, '0-' .. seq, 'op', 'L', 'member', member)
+            allQueued = false
+        end
+    end
+
+    if allQueued then
+        for p = 0, playerCount - 1 do
+            local playerKeys = key + p * 3
+            redis.call('ZREM', KEYS[1], ARGV[members + p])
+            redis.call('ZREM', KEYS[6], ARGV[members + p])
+            local seq = redis.call('INCR', KEYS[3])
+            redis.call('XADD', KEYS[4], 'MAXLEN', '~', streamLength, '0-' .. seq,
+                'op', 'M', 'member', ARGV[members + p])
+            redis.call('DEL', KEYS[playerKeys])
+            redis.call('SET', KEYS[playerKeys + 1], matchRecord, 'EX', matchTtl)
+            redis.call('XADD', KEYS[playerKeys + 2], 'MAXLEN', '~', playerStreamLength, '*',
+                'event', 'MATCH_FOUND', 'matchId', matchId, 'serverRegion', region)
+        end
+        redis.call('XADD', KEYS[2], 'MAXLEN', '~', streamLength, '*',
+            'matchId', matchId, 'playerCount', playerCount,
+            'averageSkill', ARGV[arg + 3], 'averageLatency', ARGV[arg + 4],
+            'region', region, 'timestamp', ARGV[arg + 6], 'match', matchRecord)
+    else
+        rejected[#rejected + 1] = m
+    end
+
+    arg = members + playerCount
+    key = key + playerCount * 3
+end
+
+return rejected
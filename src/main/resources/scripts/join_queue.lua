@@ -0,0 +1,19 @@
+-- Atomically add a player to a region queue and return their position.
+-- KEYS[1] region queue ZSet, KEYS[2] player record, KEYS[3] mutation sequence, KEYS[4] mutation stream,
+-- KEYS[5] region skill index ZSet
+-- ARGV[1] queue member, ARGV[2] player record, ARGV[3] join score, ARGV[4] record TTL in seconds,
+-- ARGV[5] approximate mutation stream length, ARGV[6] skill rating
+-- Returns the 1-based queue position, or -1 if the player is already queued.
+if redis.call('EXISTS', KEYS[2]) == 1 or redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+    return -1
+end
+
+redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[4])
+redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])
+redis.call('ZADD', KEYS[5], ARGV[6], ARGV[1])
+
+local seq = redis.call('INCR', KEYS[3])
+redis.call('XADD', KEYS[4], 'MAXLEN', '~', ARGV[5], '0-' .. seq,
+    'op', 'J', 'member', ARGV[1], 'player', ARGV[2])
+
+return redis.call('ZRANK', KEYS[1], ARGV[1]) + 1
@@ -0,0 +1,18 @@
+-- Atomically remove players from a region queue and log the removals.
+-- KEYS[1] region queue ZSet, KEYS[2] mutation sequence, KEYS[3] mutation stream,
+-- KEYS[4] region skill index ZSet, then the player record of each member.
+-- ARGV[1] approximate mutation stream length, then the queue member of each player.
+-- Returns the number of players that were removed from the queue.
+local removed = 0
+
+for i = 2, #ARGV do
+    redis.call('DEL', KEYS[i + 3])
+    redis.call('ZREM', KEYS[4], ARGV[i])
+    if redis.call('ZREM', KEYS[1], ARGV[i]) == 1 then
+        local seq = redis.call('INCR', KEYS[2])
+        redis.call('XADD', KEYS[3], 'MAXLEN', '~', ARGV[1], '0-' .. seq, 'op', 'L', 'member', ARGV[i])
+        removed = removed + 1
+    end
+end
+
+return removed
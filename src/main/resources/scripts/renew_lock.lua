@@ -0,0 +1,8 @@
+-- Extend a lock's lease if it is still held by the given owner.
+-- KEYS[1] lock key
+-- ARGV[1] owner token, ARGV[2] lease in milliseconds
+-- Returns 1 if the lease was extended, 0 if the lock was lost.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,27 @@
+-- Find the longest-waiting players of a region queue within a skill range.
+-- KEYS[1] region queue ZSet (scored by join time), KEYS[2] region skill index ZSet (scored by skill rating)
+-- ARGV[1] minimum skill rating, ARGV[2] maximum skill rating, ARGV[3] maximum number of candidates
+-- Returns the queue members of up to ARGV[3] candidates, oldest first.
+-- Index members that are no longer queued are removed on the way.
+-- Cost grows with the number of players in the skill range, not with the queue size.
+local inRange = redis.call('ZRANGEBYSCORE', KEYS[2], ARGV[1], ARGV[2])
+local limit = tonumber(ARGV[3])
+local candidates = {}
+
+for _, member in ipairs(inRange) do
+    local joinedAt = redis.call('ZSCORE', KEYS[1], member)
+    if joinedAt then
+        candidates[#candidates + 1] = { tonumber(joinedAt), member }
+    else
+        redis.call('ZREM', KEYS[2], member)
+    end
+end
+
+table.sort(candidates, function(a, b) return a[1] < b[1] end)
+
+local oldest = {}
+for i = 1, math.min(limit, #candidates) do
+    oldest[i] = candidates[i][2]
+end
+
+return oldest
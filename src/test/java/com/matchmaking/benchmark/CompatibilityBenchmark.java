@@ -0,0 +1,67 @@
+package com.matchmaking.benchmark;
+
+import com.matchmaking.model.Player;
+import com.matchmaking.service.MatchmakingAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the pairwise compatibility check and the match quality score
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompatibilityBenchmark {
+
+    private static final int POPULATION = 4096;
+
+    @Param({"2", "5", "10"})
+    public int matchSize;
+
+    private MatchmakingAlgorithm algorithm;
+    private Player[] players;
+    private List<List<Player>> groups;
+    private List<List<Player>> partialGroups;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        algorithm = Populations.algorithm();
+        players = Populations.players(POPULATION, 42).toArray(new Player[0]);
+
+        groups = new ArrayList<>();
+        partialGroups = new ArrayList<>();
+        for (int i = 0; i + matchSize <= POPULATION; i += matchSize) {
+            groups.add(List.of(players).subList(i, i + matchSize));
+            partialGroups.add(List.of(players).subList(i, i + matchSize - 1));
+        }
+    }
+
+    @Benchmark
+    public boolean arePlayersCompatible() {
+        int i = next++ & (POPULATION - 1);
+        List<Player> existing = partialGroups.get(i % partialGroups.size());
+        return algorithm.arePlayersCompatible(existing.get(0), players[i], existing);
+    }
+
+    @Benchmark
+    public double calculateMatchQuality() {
+        return algorithm.calculateMatchQuality(groups.get(next++ % groups.size()));
+    }
+}
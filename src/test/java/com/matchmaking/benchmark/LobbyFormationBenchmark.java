@@ -0,0 +1,71 @@
+package com.matchmaking.benchmark;
+
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
+import com.matchmaking.service.MatchmakingAlgorithm;
+import com.matchmaking.service.TeamBalancer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lobbies formed per second: team split plus quality score of one N-vs-N lobby.
+ * Sizes up to 12 use the exact solver, larger ones the time-bounded heuristic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LobbyFormationBenchmark {
+
+    private static final int LOBBIES = 1024;
+
+    @Param({"4", "6", "10", "12", "16", "20"})
+    public int lobbySize;
+
+    private MatchmakingAlgorithm algorithm;
+    private TeamBalancer teamBalancer;
+    private List<List<Player>> lobbies;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        algorithm = Populations.algorithm();
+        teamBalancer = new TeamBalancer(true, 12, 100);
+
+        List<Player> players = Populations.players(LOBBIES * lobbySize, 42);
+        lobbies = new ArrayList<>(LOBBIES);
+        for (int i = 0; i < LOBBIES; i++) {
+            lobbies.add(players.subList(i * lobbySize, (i + 1) * lobbySize));
+        }
+    }
+
+    @Benchmark
+    public List<Match.Team> balanceTeams() {
+        return teamBalancer.balance(lobbies.get(next++ & (LOBBIES - 1)));
+    }
+
+    @Benchmark
+    public double formLobby() {
+        List<Player> lobby = lobbies.get(next++ & (LOBBIES - 1));
+        Match match = Match.builder()
+            .players(lobby)
+            .teams(teamBalancer.balance(lobby))
+            .build();
+        return algorithm.calculateMatchQuality(match);
+    }
+}
@@ -0,0 +1,105 @@
+package com.matchmaking.benchmark;
+
+import com.matchmaking.model.Player;
+import com.matchmaking.service.MatchmakingAlgorithm;
+import com.matchmaking.service.QueueSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory pairing step of a matchmaking tick, against queues of 1k to 1M players
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PairingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int queueSize;
+
+    @Param({"2", "5", "10"})
+    public int matchSize;
+
+    private MatchmakingAlgorithm algorithm;
+    private MatchmakingAlgorithm parallelAlgorithm;
+    private MatchmakingAlgorithm optimalAlgorithm;
+    private List<Player> queue;
+    private QueueSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        algorithm = Populations.algorithm();
+        parallelAlgorithm = Populations.algorithm();
+        ReflectionTestUtils.setField(parallelAlgorithm, "parallelPairing", true);
+        ReflectionTestUtils.setField(parallelAlgorithm, "minBandSize", 5000);
+        optimalAlgorithm = Populations.algorithm();
+        ReflectionTestUtils.setField(optimalAlgorithm, "pairingMode", "optimal");
+        queue = Populations.players(queueSize, queueSize);
+        snapshot = QueueSnapshot.of(queue);
+    }
+
+    /**
+     * Grouping only, as in MatchmakingService.processMatchmaking
+     */
+    @Benchmark
+    public List<List<Player>> findMatches() {
+        return algorithm.findMatches(queue, matchSize);
+    }
+
+    /**
+     * Grouping over a snapshot taken ahead of time, i.e. pairing without the copy
+     */
+    @Benchmark
+    public List<List<Player>> findMatchesOnSnapshot() {
+        return algorithm.findMatches(snapshot, matchSize);
+    }
+
+    /**
+     * Grouping over the same snapshot split into skill bands on a fork-join pool
+     */
+    @Benchmark
+    public List<List<Player>> findMatchesParallel() {
+        return parallelAlgorithm.findMatches(snapshot, matchSize);
+    }
+
+    /**
+     * Optimal 1v1 pairing over the same snapshot; other match sizes fall back to greedy
+     */
+    @Benchmark
+    public List<List<Player>> findMatchesOptimal() {
+        return optimalAlgorithm.findMatches(snapshot, matchSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelAlgorithm.shutdown();
+    }
+
+    /**
+     * Grouping plus scoring every match formed
+     */
+    @Benchmark
+    public void findAndScoreMatches(Blackhole blackhole) {
+        for (List<Player> match : algorithm.findMatches(queue, matchSize)) {
+            blackhole.consume(algorithm.calculateMatchQuality(match));
+        }
+    }
+}
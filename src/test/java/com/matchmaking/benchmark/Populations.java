@@ -0,0 +1,73 @@
+package com.matchmaking.benchmark;
+
+import com.matchmaking.model.Player;
+import com.matchmaking.service.MatchmakingAlgorithm;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic player populations for the benchmarks and the pairing reference tests.
+ * Skill is normal around 1500 (sd 350), latency is log-normal with a 45ms median and a
+ * long tail, and regions are weighted towards the larger ones.
+ */
+public final class Populations {
+
+    private static final String[] REGIONS = {"us-east", "us-west", "eu-west", "ap-southeast"};
+    private static final double[] REGION_WEIGHTS = {0.35, 0.25, 0.25, 0.15};
+
+    private Populations() {
+    }
+
+    public static List<Player> players(int size, long seed) {
+        Random random = new Random(seed);
+        Instant start = Instant.now();
+        List<Player> players = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            players.add(Player.builder()
+                .playerId("bench-player" + i)
+                .username("BenchUser" + i)
+                .skillRating(skill(random))
+                .latency(latency(random))
+                .region(region(random))
+                .queuedAt(start.plusMillis(i))
+                .status(Player.PlayerStatus.QUEUED)
+                .build());
+        }
+
+        return players;
+    }
+
+    /**
+     * Algorithm configured with the defaults from application.properties
+     */
+    public static MatchmakingAlgorithm algorithm() {
+        MatchmakingAlgorithm algorithm = new MatchmakingAlgorithm();
+        ReflectionTestUtils.setField(algorithm, "maxSkillGap", 200);
+        ReflectionTestUtils.setField(algorithm, "maxLatencyThreshold", 100);
+        return algorithm;
+    }
+
+    private static int skill(Random random) {
+        return (int) Math.max(0, Math.min(5000, Math.round(1500 + random.nextGaussian() * 350)));
+    }
+
+    private static int latency(Random random) {
+        return (int) Math.max(5, Math.min(400, Math.round(Math.exp(Math.log(45) + random.nextGaussian() * 0.5))));
+    }
+
+    private static String region(Random random) {
+        double pick = random.nextDouble();
+        for (int i = 0; i < REGIONS.length - 1; i++) {
+            pick -= REGION_WEIGHTS[i];
+            if (pick < 0) {
+                return REGIONS[i];
+            }
+        }
+        return REGIONS[REGIONS.length - 1];
+    }
+}
@@ -0,0 +1,65 @@
+package com.matchmaking.benchmark;
+
+import com.matchmaking.config.CompactRedisSerializer;
+import com.matchmaking.config.RedisConfig;
+import com.matchmaking.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a player record in the JSON and compact value formats.
+ * Encoded size is checked by CompactRedisSerializerTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int POPULATION = 4096;
+
+    @Param({"json", "compact"})
+    public String format;
+
+    private RedisSerializer<Object> serializer;
+    private Player[] players;
+    private byte[][] encoded;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        serializer = new CompactRedisSerializer(RedisConfig.jsonValueSerializer(), "compact".equals(format));
+        List<Player> population = Populations.players(POPULATION, 42);
+        players = population.toArray(new Player[0]);
+
+        encoded = new byte[POPULATION][];
+        for (int i = 0; i < POPULATION; i++) {
+            encoded[i] = serializer.serialize(players[i]);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(players[next++ & (POPULATION - 1)]);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded[next++ & (POPULATION - 1)]);
+    }
+}
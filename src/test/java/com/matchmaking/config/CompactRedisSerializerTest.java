@@ -0,0 +1,130 @@
+package com.matchmaking.config;
+
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the compact Redis value format.
+ * Encode and decode cost against JSON is measured by the JMH SerializationBenchmark.
+ */
+@DisplayName("Compact Redis Serializer Tests")
+class CompactRedisSerializerTest {
+
+    private final RedisSerializer<Object> json = new CompactRedisSerializer(RedisConfig.jsonValueSerializer(), false);
+    private final RedisSerializer<Object> compact = new CompactRedisSerializer(RedisConfig.jsonValueSerializer(), true);
+
+    @Test
+    @DisplayName("Should round-trip players in the compact format")
+    void testPlayerRoundTrip() {
+        Player player = createPlayer("player1");
+
+        byte[] bytes = compact.serialize(player);
+
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(player, compact.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("Should round-trip matches and null fields in the compact format")
+    void testMatchRoundTrip() {
+        Match match = Match.builder()
+            .matchId("match-1")
+            .players(List.of(createPlayer("player1"), Player.builder().playerId("player2").build()))
+            .averageSkillRating(1500)
+            .averageLatency(45)
+            .serverRegion("us-east")
+            .createdAt(Instant.now())
+            .status(Match.MatchStatus.READY)
+            .build();
+
+        assertEquals(match, compact.deserialize(compact.serialize(match)));
+    }
+
+    @Test
+    @DisplayName("Should round-trip team matches as version 2 and keep other matches on version 1")
+    void testTeamMatchRoundTrip() {
+        Match match = Match.builder()
+            .matchId("match-1")
+            .players(List.of(createPlayer("player1"), createPlayer("player2"),
+                createPlayer("player3"), createPlayer("player4")))
+            .teams(List.of(
+                Match.Team.builder().teamId(0).playerIds(List.of("player1", "player4")).averageSkillRating(1500).build(),
+                Match.Team.builder().teamId(1).playerIds(List.of("player2", "player3")).averageSkillRating(1510).build()))
+            .averageSkillRating(1505)
+            .averageLatency(45)
+            .serverRegion("us-east")
+            .createdAt(Instant.now())
+            .status(Match.MatchStatus.READY)
+            .build();
+
+        byte[] bytes = compact.serialize(match);
+        assertEquals(2, bytes[1]);
+        assertEquals(match, compact.deserialize(bytes));
+
+        match.setTeams(null);
+        bytes = compact.serialize(match);
+        assertEquals(1, bytes[1]);
+        assertEquals(match, compact.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("Should read records written as JSON")
+    void testReadsLegacyJson() {
+        Player player = createPlayer("player1");
+
+        byte[] legacy = json.serialize(player);
+
+        assertNotEquals(CompactRedisSerializer.MAGIC, legacy[0]);
+        assertEquals(player, compact.deserialize(legacy));
+    }
+
+    @Test
+    @DisplayName("Should keep other values in JSON")
+    void testDelegatesOtherValues() {
+        assertArrayEquals(json.serialize("player1"), compact.serialize("player1"));
+        assertEquals("player1", compact.deserialize(compact.serialize("player1")));
+    }
+
+    @Test
+    @DisplayName("Should encode players in less than half the size of JSON")
+    void testSmallerThanJson() {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            players.add(createPlayer("player" + i));
+        }
+
+        long jsonBytes = measureBytes(json, players);
+        long compactBytes = measureBytes(compact, players);
+
+        assertTrue(compactBytes * 2 < jsonBytes, "Compact format should be less than half the size of JSON");
+    }
+
+    private long measureBytes(RedisSerializer<Object> serializer, List<Player> players) {
+        long total = 0;
+        for (Player player : players) {
+            total += serializer.serialize(player).length;
+        }
+        return total;
+    }
+
+    private Player createPlayer(String id) {
+        return Player.builder()
+            .playerId(id)
+            .username("User" + id)
+            .skillRating(1500)
+            .latency(50)
+            .region("us-east")
+            .queuedAt(Instant.now())
+            .status(Player.PlayerStatus.QUEUED)
+            .build();
+    }
+}
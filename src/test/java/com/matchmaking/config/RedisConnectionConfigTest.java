@@ -0,0 +1,29 @@
+package com.matchmaking.config;
+
+import io.lettuce.core.ReadFrom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for parsing matchmaking.redis.read-from
+ */
+@DisplayName("Redis Read-From Setting Tests")
+class RedisConnectionConfigTest {
+
+    @Test
+    @DisplayName("Should accept constant style and Lettuce style names")
+    void testReadFromNames() {
+        assertSame(ReadFrom.REPLICA_PREFERRED, RedisConnectionConfig.readFrom("REPLICA_PREFERRED"));
+        assertSame(ReadFrom.REPLICA_PREFERRED, RedisConnectionConfig.readFrom("replicaPreferred"));
+        assertSame(ReadFrom.ANY_REPLICA, RedisConnectionConfig.readFrom("ANY_REPLICA"));
+        assertSame(ReadFrom.LOWEST_LATENCY, RedisConnectionConfig.readFrom("lowestLatency"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown names")
+    void testRejectsUnknownName() {
+        assertThrows(IllegalArgumentException.class, () -> RedisConnectionConfig.readFrom("NEAREST_REPLICA"));
+    }
+}
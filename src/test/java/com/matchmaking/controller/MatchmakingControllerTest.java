@@ -77,6 +77,25 @@ class MatchmakingControllerTest {
             .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should reject unsupported region")
+    void testJoinQueueUnsupportedRegion() throws Exception {
+        MatchmakingRequest request = MatchmakingRequest.builder()
+            .playerId("player3")
+            .username("TestPlayer3")
+            .skillRating(1500)
+            .latency(50)
+            .region("mars-north")
+            .build();
+
+        mockMvc.perform(post("/api/matchmaking/joinQueue")
+                .header("Authorization", "Bearer " + authToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @DisplayName("Should leave queue successfully")
     void testLeaveQueue() throws Exception {
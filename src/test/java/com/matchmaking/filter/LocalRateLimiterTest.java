@@ -0,0 +1,91 @@
+package com.matchmaking.filter;
+
+import com.matchmaking.service.ShardOwnershipService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the in-process rate limiter, with Redis replaced by a mock
+ */
+@DisplayName("Local Rate Limiter Tests")
+class LocalRateLimiterTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+    private final ShardOwnershipService shardOwnershipService = mock(ShardOwnershipService.class);
+
+    private LocalRateLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        if (limiter != null) {
+            limiter.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should admit no more than the unsynced budget before counts reach Redis")
+    void testUnsyncedBudget() {
+        // Hold the background sync until the budget has been checked
+        CountDownLatch redisReply = new CountDownLatch(1);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            redisReply.await(5, TimeUnit.SECONDS);
+            return List.of(2L, true);
+        });
+        limiter = new LocalRateLimiter(redisTemplate, shardOwnershipService, 10, 60_000, 0.2);
+
+        assertTrue(limiter.tryAcquire("client1"));
+        assertTrue(limiter.tryAcquire("client1"));
+        assertFalse(limiter.tryAcquire("client1"));
+
+        redisReply.countDown();
+        limiter.sync();
+
+        assertTrue(limiter.tryAcquire("client1"));
+        assertTrue(limiter.tryAcquire("client2"));
+    }
+
+    @Test
+    @DisplayName("Should count requests admitted by other nodes against the limit")
+    void testCountsOtherNodes() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(10L, true));
+        limiter = new LocalRateLimiter(redisTemplate, shardOwnershipService, 10, 60_000, 0.2);
+
+        assertTrue(limiter.tryAcquire("client1"));
+        assertTrue(limiter.tryAcquire("client1"));
+
+        limiter.sync();
+
+        assertFalse(limiter.tryAcquire("client1"));
+    }
+
+    @Test
+    @DisplayName("Should admit the node's share of the limit while Redis is unavailable")
+    void testRedisUnavailable() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new IllegalStateException("down"));
+        when(shardOwnershipService.getLiveNodes()).thenReturn(List.of("node-1", "node-2"));
+        limiter = new LocalRateLimiter(redisTemplate, shardOwnershipService, 10, 60_000, 0.2);
+
+        assertTrue(limiter.tryAcquire("client1"));
+        assertTrue(limiter.tryAcquire("client1"));
+        limiter.sync();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("client1"));
+        }
+        assertFalse(limiter.tryAcquire("client1"));
+    }
+}
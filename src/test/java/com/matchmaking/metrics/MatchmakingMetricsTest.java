@@ -0,0 +1,98 @@
+package com.matchmaking.metrics;
+
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the region-tagged matchmaking meters
+ */
+@DisplayName("Matchmaking Metrics Tests")
+class MatchmakingMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private MatchmakingMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new MatchmakingMetrics(registry, List.of("us-east", "eu-west"));
+    }
+
+    @Test
+    @DisplayName("Should register meters for every configured region up front")
+    void testRegionsPreRegistered() {
+        assertEquals(0.0, registry.get("matchmaking.players.joined").tag("region", "eu-west").counter().count());
+        assertEquals(0, registry.get("matchmaking.time").tag("region", "us-east").timer().count());
+        assertTrue(Double.isNaN(registry.get("matchmaking.queue.size").tag("region", "us-east").gauge().value()));
+    }
+
+    @Test
+    @DisplayName("Should tag counters by region and reuse registered meters")
+    void testCountersTaggedByRegion() {
+        metrics.recordPlayerJoined("us-east");
+        metrics.recordPlayerJoined("us-east");
+        metrics.recordPlayerJoined("eu-west");
+
+        assertEquals(2.0, registry.get("matchmaking.players.joined").tag("region", "us-east").counter().count());
+        assertEquals(1.0, registry.get("matchmaking.players.joined").tag("region", "eu-west").counter().count());
+        assertEquals(2, registry.get("matchmaking.players.joined").counters().size());
+    }
+
+    @Test
+    @DisplayName("Should read queue size gauges from the bound source after garbage collection")
+    void testQueueSizeGaugeReadsBoundSource() {
+        Map<String, Double> sizes = new HashMap<>(Map.of("us-east", 42.0, "eu-west", 3.0));
+        metrics.bindQueueSize(sizes::get);
+        System.gc();
+
+        assertEquals(42.0, registry.get("matchmaking.queue.size").tag("region", "us-east").gauge().value());
+        assertEquals(3.0, registry.get("matchmaking.queue.size").tag("region", "eu-west").gauge().value());
+
+        sizes.put("us-east", 7.0);
+        assertEquals(7.0, registry.get("matchmaking.queue.size").tag("region", "us-east").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should record match quality and player wait times")
+    void testMatchCreated() {
+        Instant createdAt = Instant.now();
+        Match match = Match.builder()
+            .matchId("match-1")
+            .players(List.of(createPlayer("player1", createdAt.minusSeconds(4)),
+                createPlayer("player2", createdAt.minusSeconds(2))))
+            .serverRegion("us-east")
+            .createdAt(createdAt)
+            .build();
+
+        metrics.recordMatchCreated(match, 80.0);
+
+        assertEquals(1.0, registry.get("matchmaking.matches.created").tag("region", "us-east").counter().count());
+        assertEquals(80.0, registry.get("matchmaking.match.quality").tag("region", "us-east").summary().mean());
+        assertEquals(2, registry.get("matchmaking.queue.wait.time").tag("region", "us-east").timer().count());
+        assertEquals(Duration.ofSeconds(3).toMillis(),
+            registry.get("matchmaking.queue.wait.time").tag("region", "us-east").timer().mean(TimeUnit.MILLISECONDS));
+    }
+
+    private Player createPlayer(String id, Instant queuedAt) {
+        return Player.builder()
+            .playerId(id)
+            .skillRating(1500)
+            .latency(50)
+            .region("us-east")
+            .queuedAt(queuedAt)
+            .build();
+    }
+}
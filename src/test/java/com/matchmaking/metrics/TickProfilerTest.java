@@ -0,0 +1,100 @@
+package com.matchmaking.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for tick profiling and the profile ring buffer
+ */
+@DisplayName("Tick Profiler Tests")
+class TickProfilerTest {
+
+    private SimpleMeterRegistry registry;
+    private TickProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        profiler = new TickProfiler(new MatchmakingMetrics(registry, List.of("us-east")), 3);
+    }
+
+    @Test
+    @DisplayName("Should record work done during a tick and export it")
+    void testRecordsTickWork() {
+        String result = profiler.profile("us-east", () -> {
+            TickProfile.endPhase(TickProfile.Phase.LOCK_WAIT);
+            TickProfile.addRedisCommands(3);
+            TickProfile.endPhase(TickProfile.Phase.FETCH);
+            TickProfile.addPairingWork(10, 12);
+            TickProfile.recordOutcome(20, 5, 1);
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertNull(TickProfile.current());
+
+        TickProfile profile = profiler.getRecentTicks().get(0);
+        assertEquals("us-east", profile.getRegion());
+        assertEquals(3, profile.getRedisCommands());
+        assertEquals(10, profile.getCandidatesExamined());
+        assertEquals(12, profile.getCompatibilityChecks());
+        assertEquals(5, profile.getMatchesFormed());
+        assertEquals(1, profile.getMatchesRejected());
+        assertEquals(List.of("lock_wait", "fetch", "pairing", "commit"), List.copyOf(profile.getPhaseMillis().keySet()));
+
+        assertEquals(1, registry.get("matchmaking.time").tag("region", "us-east").timer().count());
+        assertEquals(1, registry.get("matchmaking.tick.phase").tag("phase", "fetch").timer().count());
+        assertEquals(3.0, registry.get("matchmaking.tick.redis_commands").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent ticks, newest first")
+    void testRingBuffer() {
+        for (String region : List.of("us-east", "eu-west", "us-east", "eu-west", "us-east")) {
+            profiler.profile(region, () -> null);
+        }
+
+        List<TickProfile> ticks = profiler.getRecentTicks();
+        assertEquals(List.of("us-east", "eu-west", "us-east"), ticks.stream().map(TickProfile::getRegion).toList());
+        assertEquals(2, profiler.getRecentTicks("us-east").size());
+    }
+
+    @Test
+    @DisplayName("Should count skipped ticks without recording their profiles")
+    void testSkippedTick() {
+        profiler.profile("us-east", () -> {
+            TickProfile.markSkipped();
+            return null;
+        });
+
+        assertTrue(profiler.getRecentTicks().isEmpty());
+        assertEquals(0, registry.get("matchmaking.time").tag("region", "us-east").timer().count());
+        assertEquals(1.0, registry.get("matchmaking.ticks").tag("outcome", "skipped").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should record failed ticks and rethrow")
+    void testFailedTick() {
+        assertThrows(IllegalStateException.class, () -> profiler.profile("us-east", () -> {
+            throw new IllegalStateException("lock busy");
+        }));
+
+        assertEquals("lock busy", profiler.getRecentTicks().get(0).getError());
+        assertNull(TickProfile.current());
+    }
+
+    @Test
+    @DisplayName("Should ignore recording outside a profiled tick")
+    void testNoProfileOutsideTick() {
+        TickProfile.addRedisCommands(1);
+        TickProfile.endPhase(TickProfile.Phase.FETCH);
+
+        assertTrue(profiler.getRecentTicks().isEmpty());
+    }
+}
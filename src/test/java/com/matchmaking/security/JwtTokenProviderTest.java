@@ -0,0 +1,97 @@
+package com.matchmaking.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for token verification and the verified-token cache
+ */
+@DisplayName("JWT Token Provider Tests")
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = createProvider(86_400_000);
+    }
+
+    @Test
+    @DisplayName("Should verify a token and return its player ID, also from the cache")
+    void testVerifyAndGetPlayerId() {
+        String token = provider.generateToken("player1");
+
+        assertEquals("player1", provider.verifyAndGetPlayerId(token));
+        assertEquals("player1", provider.verifyAndGetPlayerId(token));
+        assertEquals("player1", provider.getPlayerIdFromToken(token));
+        assertTrue(provider.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens and tokens signed with another key")
+    void testRejectsInvalidTokens() {
+        String token = provider.generateToken("player1");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        JwtTokenProvider other = createProvider(86_400_000);
+        ReflectionTestUtils.setField(other, "jwtSecret", "another-secret-key-that-is-long-enough-for-hmac");
+        other.init();
+
+        assertNull(provider.verifyAndGetPlayerId(tampered));
+        assertNull(other.verifyAndGetPlayerId(token));
+        assertNull(provider.verifyAndGetPlayerId("not-a-token"));
+        assertFalse(provider.validateToken(null));
+    }
+
+    @Test
+    @DisplayName("Should stop accepting a cached token once it expires")
+    void testCachedTokenExpires() {
+        JwtTokenProvider shortLived = createProvider(1_000);
+        Instant issuedAt = Instant.parse("2024-01-15T10:30:00.500Z");
+        ReflectionTestUtils.setField(shortLived, "clock", Clock.fixed(issuedAt, ZoneOffset.UTC));
+        String token = shortLived.generateToken("player1");
+
+        assertEquals("player1", shortLived.verifyAndGetPlayerId(token));
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(shortLived, "verifiedTokens");
+        assertNotNull(cache);
+        assertEquals(1, cache.size());
+
+        // The expiry claim has whole seconds, so the token is past it two seconds later
+        ReflectionTestUtils.setField(shortLived, "clock", Clock.fixed(issuedAt.plusSeconds(2), ZoneOffset.UTC));
+
+        assertNull(shortLived.verifyAndGetPlayerId(token));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the cache within its bound")
+    void testCacheIsBounded() {
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", 10);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("player" + i, provider.verifyAndGetPlayerId(provider.generateToken("player" + i)));
+        }
+
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(provider, "verifiedTokens");
+        assertNotNull(cache);
+        assertTrue(cache.size() <= 10);
+    }
+
+    private JwtTokenProvider createProvider(long expiration) {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "test-secret-key-that-is-long-enough-for-hmac-sha");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 10_000);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+}
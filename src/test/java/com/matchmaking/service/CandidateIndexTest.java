@@ -0,0 +1,127 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CandidateIndex, checked against a linear scan of the same players
+ */
+@DisplayName("Candidate Index Tests")
+class CandidateIndexTest {
+
+    private static final String[] REGIONS = {"us-east", "eu-west"};
+
+    @Test
+    @DisplayName("Should find the oldest available player in a skill range")
+    void testPollOldest() {
+        QueueSnapshot snapshot = QueueSnapshot.of(List.of(
+            player(0, 1500, "us-east"), player(1, 1700, "us-east"), player(2, 1450, "eu-west"),
+            player(3, 1480, "us-east"), player(4, 1520, "us-east")), 0);
+        CandidateIndex index = CandidateIndex.build(snapshot, new int[]{0, 1, 2, 3, 4});
+        int usEast = snapshot.regionOrdinal(0);
+
+        assertEquals(0, index.pollOldest(usEast, 1400, 1600));
+        assertEquals(3, index.pollOldest(usEast, 1400, 1600));
+        assertEquals(4, index.peekOldest(usEast, 1400, 1600));
+        assertEquals(-1, index.peekOldest(usEast, 1600, 1650));
+
+        index.restoreAll();
+        assertEquals(0, index.peekOldest(usEast, 1400, 1600));
+        assertEquals(5, index.remaining());
+    }
+
+    @Test
+    @DisplayName("Should stay consistent with a linear scan under random updates")
+    void testRandomUpdates() {
+        Random random = new Random(42);
+        int size = 3000;
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            players.add(player(i, 1000 + random.nextInt(1000), REGIONS[random.nextInt(REGIONS.length)]));
+        }
+        QueueSnapshot snapshot = QueueSnapshot.of(players, 0);
+
+        // Start from every other player and let the rest join later
+        int[] initial = new int[size / 2];
+        for (int i = 0; i < initial.length; i++) {
+            initial[i] = 2 * i;
+        }
+        CandidateIndex index = CandidateIndex.build(snapshot, initial);
+        byte[] expected = new byte[size];
+        for (int i : initial) {
+            expected[i] = 1;
+        }
+
+        for (int step = 0; step < 20_000; step++) {
+            int player = random.nextInt(size);
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    index.add(player);
+                    if (expected[player] == 0) {
+                        expected[player] = 1;
+                    }
+                }
+                case 1 -> {
+                    index.delete(player);
+                    expected[player] = 0;
+                }
+                case 2 -> {
+                    index.remove(player);
+                    if (expected[player] == 1) {
+                        expected[player] = 2;
+                    }
+                }
+                case 3 -> {
+                    index.restore(player);
+                    if (expected[player] == 2) {
+                        expected[player] = 1;
+                    }
+                }
+                default -> {
+                    int region = random.nextInt(REGIONS.length);
+                    int min = 1000 + random.nextInt(1000);
+                    int max = min + random.nextInt(300);
+                    assertEquals(scan(snapshot, expected, region, min, max), index.peekOldest(region, min, max));
+                }
+            }
+        }
+
+        index.restoreAll();
+        int available = 0;
+        for (int i = 0; i < size; i++) {
+            if (expected[i] == 2) {
+                expected[i] = 1;
+            }
+            assertEquals(expected[i] == 1, index.contains(i));
+            available += expected[i];
+        }
+        assertEquals(available, index.remaining());
+        assertEquals(available, index.size());
+    }
+
+    private static int scan(QueueSnapshot snapshot, byte[] state, int region, int min, int max) {
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (state[i] == 1 && snapshot.regionOrdinal(i) == region
+                    && snapshot.skill(i) >= min && snapshot.skill(i) <= max) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Player player(int id, int skill, String region) {
+        return Player.builder()
+            .playerId("player" + id)
+            .skillRating(skill)
+            .latency(40)
+            .region(region)
+            .build();
+    }
+}
@@ -1,12 +1,18 @@
 package com.matchmaking.service;
 
+import com.matchmaking.model.Match;
 import com.matchmaking.model.Player;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,7 +27,8 @@ class MatchmakingAlgorithmTest {
     @BeforeEach
     void setUp() {
         algorithm = new MatchmakingAlgorithm();
-        // Set test values using reflection or create test configuration
+        ReflectionTestUtils.setField(algorithm, "maxSkillGap", 200);
+        ReflectionTestUtils.setField(algorithm, "maxLatencyThreshold", 100);
     }
 
     @Test
@@ -105,9 +112,10 @@ class MatchmakingAlgorithmTest {
     @Test
     @DisplayName("Should calculate match quality correctly")
     void testMatchQualityCalculation() {
+        // Close ratings and low pings: 0.6 * 90 (skill) + 0.4 * 87.5 (latency)
         List<Player> players = List.of(
-            createPlayer("player1", 1500, 50, "us-east"),
-            createPlayer("player2", 1520, 55, "us-east")
+            createPlayer("player1", 1500, 10, "us-east"),
+            createPlayer("player2", 1520, 15, "us-east")
         );
         
         double quality = algorithm.calculateMatchQuality(players);
@@ -116,6 +124,302 @@ class MatchmakingAlgorithmTest {
         assertTrue(quality > 80, "High quality match should have score > 80");
     }
 
+    @Test
+    @DisplayName("Should score team balance for team matches")
+    void testTeamMatchQuality() {
+        List<Player> players = List.of(
+            createPlayer("player1", 1600, 40, "us-east"),
+            createPlayer("player2", 1550, 40, "us-east"),
+            createPlayer("player3", 1450, 40, "us-east"),
+            createPlayer("player4", 1400, 40, "us-east")
+        );
+        Match balanced = Match.builder().players(players).teams(List.of(
+            team(0, 1500, "player1", "player4"), team(1, 1500, "player2", "player3"))).build();
+        Match stacked = Match.builder().players(players).teams(List.of(
+            team(0, 1575, "player1", "player2"), team(1, 1425, "player3", "player4"))).build();
+
+        double balancedQuality = algorithm.calculateMatchQuality(balanced);
+        double stackedQuality = algorithm.calculateMatchQuality(stacked);
+
+        assertTrue(balancedQuality > stackedQuality, "Balanced teams should score higher");
+        assertEquals(algorithm.calculateMatchQuality(players),
+            algorithm.calculateMatchQuality(Match.builder().players(players).build()), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should pair the oldest player with the oldest compatible candidate")
+    void testFindMatchesGreedyOrder() {
+        List<Player> queue = List.of(
+            createPlayer("player1", 1500, 50, "us-east"),
+            createPlayer("player2", 2000, 50, "us-east"),
+            createPlayer("player3", 1650, 50, "us-east"),
+            createPlayer("player4", 1550, 50, "us-east")
+        );
+
+        List<List<Player>> matches = algorithm.findMatches(queue, 2);
+
+        assertEquals(1, matches.size());
+        assertEquals("player1", matches.get(0).get(0).getPlayerId());
+        assertEquals("player3", matches.get(0).get(1).getPlayerId());
+    }
+
+    @Test
+    @DisplayName("Should keep every player in a match within the skill gap of each other")
+    void testFindMatchesNarrowsWindow() {
+        List<Player> queue = List.of(
+            createPlayer("player1", 1500, 50, "us-east"),
+            createPlayer("player2", 1690, 50, "us-east"),
+            createPlayer("player3", 1310, 50, "us-east"),
+            createPlayer("player4", 1600, 50, "us-east")
+        );
+
+        List<List<Player>> matches = algorithm.findMatches(queue, 3);
+
+        assertEquals(1, matches.size());
+        List<String> ids = matches.get(0).stream().map(Player::getPlayerId).toList();
+        assertEquals(List.of("player1", "player2", "player4"), ids);
+    }
+
+    @Test
+    @DisplayName("Should not match across regions or above the latency threshold")
+    void testFindMatchesFiltersRegionAndLatency() {
+        List<Player> queue = new ArrayList<>(List.of(
+            createPlayer("player1", 1500, 50, "us-east"),
+            createPlayer("player2", 1500, 50, "eu-west"),
+            createPlayer("player3", 1500, 150, "us-east"),
+            createPlayer("player4", 1520, 40, "eu-west")
+        ));
+
+        List<List<Player>> matches = algorithm.findMatches(queue, 2);
+
+        assertEquals(1, matches.size());
+        assertEquals("player2", matches.get(0).get(0).getPlayerId());
+        assertEquals("player4", matches.get(0).get(1).getPlayerId());
+    }
+
+    @Test
+    @DisplayName("Should form more 1v1 matches with optimal pairing than with greedy anchoring")
+    void testOptimalPairing() {
+        List<Player> queue = List.of(
+            createPlayer("player1", 1500, 50, "us-east"),
+            createPlayer("player2", 1690, 50, "us-east"),
+            createPlayer("player3", 1320, 50, "us-east"),
+            createPlayer("player4", 1700, 50, "us-east")
+        );
+
+        assertEquals(1, algorithm.findMatches(queue, 2).size());
+
+        ReflectionTestUtils.setField(algorithm, "pairingMode", "optimal");
+        List<List<String>> matches = algorithm.findMatches(queue, 2).stream()
+            .map(match -> match.stream().map(Player::getPlayerId).toList())
+            .toList();
+
+        assertEquals(List.of(List.of("player1", "player3"), List.of("player2", "player4")), matches);
+    }
+
+    @Test
+    @DisplayName("Should widen a player's search window with time in queue")
+    void testExpandingSearchWindow() {
+        ReflectionTestUtils.setField(algorithm, "expansionGraceMs", 5000L);
+        ReflectionTestUtils.setField(algorithm, "skillExpansionPerSecond", 25.0);
+        ReflectionTestUtils.setField(algorithm, "maxExpandedSkillGap", 600);
+
+        long now = System.currentTimeMillis();
+        Player veteran = createPlayer("player1", 2800, 50, "us-east");
+        veteran.setQueuedAt(Instant.ofEpochMilli(now - 20_000));
+        Player newcomer = createPlayer("player2", 2450, 50, "us-east");
+        newcomer.setQueuedAt(Instant.ofEpochMilli(now));
+        Player other = createPlayer("player3", 2500, 50, "us-east");
+        other.setQueuedAt(Instant.ofEpochMilli(now));
+
+        QueueSnapshot snapshot = QueueSnapshot.of(List.of(veteran, newcomer, other), now);
+
+        // 200 + 15s past the grace period at 25/s
+        assertEquals(575, algorithm.skillWindow(snapshot, 0));
+        assertEquals(200, algorithm.skillWindow(snapshot, 1));
+        assertTrue(algorithm.arePlayersCompatible(snapshot, 0, 1));
+
+        List<List<Player>> matches = algorithm.findMatches(snapshot, 2);
+        assertEquals(1, matches.size());
+        assertEquals(List.of(veteran, newcomer), matches.get(0));
+    }
+
+    @Test
+    @DisplayName("Should keep later members of a lobby within their own search windows")
+    void testLobbyUsesEachMembersWindow() {
+        ReflectionTestUtils.setField(algorithm, "expansionGraceMs", 5000L);
+        ReflectionTestUtils.setField(algorithm, "skillExpansionPerSecond", 25.0);
+        ReflectionTestUtils.setField(algorithm, "maxExpandedSkillGap", 600);
+
+        long now = System.currentTimeMillis();
+        Player veteran = createPlayer("player1", 1500, 50, "us-east");
+        veteran.setQueuedAt(Instant.ofEpochMilli(now - 13_000));
+        Player low = createPlayer("player2", 1300, 50, "us-east");
+        low.setQueuedAt(Instant.ofEpochMilli(now - 1_000));
+        Player high = createPlayer("player3", 1700, 50, "us-east");
+        high.setQueuedAt(Instant.ofEpochMilli(now - 500));
+        Player middle = createPlayer("player4", 1450, 50, "us-east");
+        middle.setQueuedAt(Instant.ofEpochMilli(now));
+
+        QueueSnapshot snapshot = QueueSnapshot.of(List.of(veteran, low, high, middle), now);
+
+        // The veteran accepts both 1300 and 1700, but those two are 400 apart on base windows
+        assertEquals(400, algorithm.skillWindow(snapshot, 0));
+        assertFalse(algorithm.arePlayersCompatible(snapshot, 1, 2));
+
+        List<List<Player>> matches = algorithm.findMatches(snapshot, 3);
+        assertEquals(1, matches.size());
+        assertEquals(List.of(veteran, low, middle), matches.get(0));
+    }
+
+    @Test
+    @DisplayName("Should check compatibility on snapshot indexes with interned regions")
+    void testSnapshotCompatibility() {
+        QueueSnapshot snapshot = QueueSnapshot.of(List.of(
+            createPlayer("player1", 1500, 50, "us-east"),
+            createPlayer("player2", 1550, 45, "eu-west"),
+            createPlayer("player3", 1650, 60, "us-east"),
+            createPlayer("player4", 1520, 150, "us-east")
+        ));
+
+        assertEquals(2, snapshot.regionCount());
+        assertEquals(snapshot.regionOrdinal(0), snapshot.regionOrdinal(2));
+        assertEquals("eu-west", snapshot.region(snapshot.regionOrdinal(1)));
+
+        assertTrue(algorithm.arePlayersCompatible(snapshot, 0, 2));
+        assertFalse(algorithm.arePlayersCompatible(snapshot, 0, 1), "Different regions");
+        assertFalse(algorithm.arePlayersCompatible(snapshot, 0, 3), "Latency above threshold");
+    }
+
+    @Test
+    @DisplayName("Should form only valid, disjoint matches when pairing skill bands in parallel")
+    void testParallelBandPairing() {
+        ReflectionTestUtils.setField(algorithm, "parallelPairing", true);
+        ReflectionTestUtils.setField(algorithm, "parallelThreads", 4);
+        ReflectionTestUtils.setField(algorithm, "minBandSize", 100);
+
+        Random random = new Random(42);
+        String[] regions = {"us-east", "eu-west"};
+        List<Player> queue = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            queue.add(createPlayer("player" + i, 1500 + (int) (random.nextGaussian() * 350),
+                20 + random.nextInt(100), regions[random.nextInt(regions.length)]));
+        }
+
+        try {
+            List<List<Player>> matches = algorithm.findMatches(queue, 3);
+
+            Set<String> matched = new HashSet<>();
+            for (List<Player> match : matches) {
+                assertEquals(3, match.size());
+                for (Player player : match) {
+                    assertTrue(matched.add(player.getPlayerId()), "Player matched twice");
+                    for (Player other : match) {
+                        assertTrue(algorithm.arePlayersCompatible(player, other, List.of()));
+                    }
+                }
+            }
+
+            ReflectionTestUtils.setField(algorithm, "parallelPairing", false);
+            int sequential = algorithm.findMatches(queue, 3).size();
+            assertTrue(matches.size() >= sequential * 0.99,
+                "Reconciliation should recover nearly all matches lost at band edges");
+        } finally {
+            algorithm.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should pair a persistent pool like a fresh snapshot of the same queue")
+    void testPoolMatchesSnapshot() {
+        // Windows widen by one point per second, so they stay put while the test runs
+        ReflectionTestUtils.setField(algorithm, "expansionGraceMs", 5000L);
+        ReflectionTestUtils.setField(algorithm, "skillExpansionPerSecond", 1.0);
+        ReflectionTestUtils.setField(algorithm, "maxExpandedSkillGap", 400);
+
+        long now = System.currentTimeMillis();
+        Random random = new Random(7);
+        String[] regions = {"us-east", "eu-west"};
+        List<Player> queue = new ArrayList<>();
+        CandidatePool pool = algorithm.newPool();
+        for (int i = 0; i < 3000; i++) {
+            Player player = createPlayer("player" + i, 1500 + (int) (random.nextGaussian() * 350),
+                20 + random.nextInt(100), regions[random.nextInt(regions.length)]);
+            player.setQueuedAt(Instant.ofEpochMilli(now - (3000 - i) / 10 * 1000L));
+            queue.add(player);
+            pool.add(player);
+        }
+
+        // Players leave between ticks
+        for (int i = 0; i < 3000; i += 3) {
+            pool.remove("player" + i);
+        }
+        queue.removeIf(player -> Integer.parseInt(player.getPlayerId().substring(6)) % 3 == 0);
+
+        List<List<Player>> expected = algorithm.findMatches(QueueSnapshot.of(queue, now), 3);
+        assertEquals(expected, algorithm.findMatches(pool, 3));
+        // The tick puts every player it took back into the pool
+        assertEquals(expected, algorithm.findMatches(pool, 3));
+        assertEquals(queue, pool.players());
+    }
+
+    @Test
+    @DisplayName("Should move pooled players between window tiers as they wait")
+    void testPoolPromotesPlayersBetweenTiers() {
+        ReflectionTestUtils.setField(algorithm, "expansionGraceMs", 5000L);
+        ReflectionTestUtils.setField(algorithm, "skillExpansionPerSecond", 25.0);
+        ReflectionTestUtils.setField(algorithm, "maxExpandedSkillGap", 600);
+
+        // 200 + 16s past the grace period at 25/s reaches 600
+        assertEquals(21_000, algorithm.skillCappedAfterMillis());
+
+        long now = System.currentTimeMillis();
+        Player player = createPlayer("player1", 1500, 50, "us-east");
+        player.setQueuedAt(Instant.ofEpochMilli(now));
+        CandidatePool pool = algorithm.newPool();
+        pool.add(player);
+
+        pool.advanceTo(now + 5_000);
+        assertEquals(MatchmakingAlgorithm.BASE_TIER, pool.tierOf(0));
+        pool.advanceTo(now + 5_001);
+        assertEquals(MatchmakingAlgorithm.EXPANDING_TIER, pool.tierOf(0));
+        pool.advanceTo(now + 20_999);
+        assertEquals(MatchmakingAlgorithm.EXPANDING_TIER, pool.tierOf(0));
+        pool.advanceTo(now + 21_000);
+        assertEquals(MatchmakingAlgorithm.CAPPED_TIER, pool.tierOf(0));
+    }
+
+    @Test
+    @DisplayName("Should index a pooled player once their latency threshold widens")
+    void testPoolIndexesPlayersAsLatencyWidens() {
+        ReflectionTestUtils.setField(algorithm, "expansionGraceMs", 5000L);
+        ReflectionTestUtils.setField(algorithm, "latencyExpansionPerSecond", 10.0);
+        ReflectionTestUtils.setField(algorithm, "maxExpandedLatencyThreshold", 200);
+
+        long now = System.currentTimeMillis();
+        Player distant = createPlayer("player1", 1500, 150, "us-east");
+        distant.setQueuedAt(Instant.ofEpochMilli(now - 9_000));
+        Player nearby = createPlayer("player2", 1500, 50, "us-east");
+        nearby.setQueuedAt(Instant.ofEpochMilli(now));
+
+        // 100ms + 5s past the grace period at 10ms/s reaches 150ms after 10s in queue
+        assertEquals(now + 1_000, algorithm.eligibleAtMillis(150, now - 9_000));
+
+        CandidatePool pool = algorithm.newPool();
+        pool.add(distant);
+        pool.add(nearby);
+        pool.advanceTo(now);
+        assertEquals(MatchmakingAlgorithm.BASE_TIER, pool.tierOf(1));
+        assertEquals(-1, pool.tierOf(0));
+
+        pool.advanceTo(now + 1_000);
+        assertEquals(MatchmakingAlgorithm.BASE_TIER, pool.tierOf(0));
+    }
+
+    private Match.Team team(int teamId, int averageSkill, String... playerIds) {
+        return Match.Team.builder().teamId(teamId).playerIds(List.of(playerIds)).averageSkillRating(averageSkill).build();
+    }
+
     private Player createPlayer(String id, int skill, int latency, String region) {
         return Player.builder()
             .playerId(id)
@@ -0,0 +1,179 @@
+package com.matchmaking.service;
+
+import com.matchmaking.benchmark.Populations;
+import com.matchmaking.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks of the in-memory pairing step against reference behaviour: the original linear
+ * scan, greedy pairing and fixed search windows, on the benchmark populations.
+ * Tick time against queue size is measured by the JMH PairingBenchmark.
+ */
+@DisplayName("Pairing Reference Tests")
+class PairingReferenceTest {
+
+    private MatchmakingAlgorithm algorithm;
+
+    @BeforeEach
+    void setUp() {
+        algorithm = Populations.algorithm();
+    }
+
+    @Test
+    @DisplayName("Indexed matching should produce the same matches as the linear scan")
+    void testIndexMatchesLinearScan() {
+        for (int matchSize = 2; matchSize <= 5; matchSize++) {
+            List<Player> queue = Populations.players(5_000, 42 + matchSize);
+
+            List<List<String>> expected = ids(linearScan(queue, matchSize));
+            List<List<String>> actual = ids(algorithm.findMatches(queue, matchSize));
+
+            assertEquals(expected, actual, "Match size " + matchSize);
+        }
+    }
+
+    @Test
+    @DisplayName("Optimal 1v1 pairing should form at least as many and as good matches as greedy")
+    void testOptimalAgainstGreedyPairing() {
+        for (int size : new int[]{1_000, 10_000}) {
+            List<Player> queue = Populations.players(size, size);
+
+            ReflectionTestUtils.setField(algorithm, "pairingMode", "greedy");
+            List<List<Player>> greedy = algorithm.findMatches(queue, 2);
+
+            ReflectionTestUtils.setField(algorithm, "pairingMode", "optimal");
+            List<List<Player>> optimal = algorithm.findMatches(queue, 2);
+
+            assertTrue(optimal.size() >= greedy.size(), "Optimal pairing should never form fewer matches");
+            assertTrue(averageQuality(optimal) >= averageQuality(greedy),
+                "Optimal pairing should not lower match quality");
+        }
+    }
+
+    @Test
+    @DisplayName("Should bound the longest waits with expanding search windows")
+    void testExpandingWindowsBoundWaitTime() {
+        WaitReport fixed = simulateArrivals();
+
+        ReflectionTestUtils.setField(algorithm, "expansionGraceMs", 5000L);
+        ReflectionTestUtils.setField(algorithm, "skillExpansionPerSecond", 25.0);
+        ReflectionTestUtils.setField(algorithm, "maxExpandedSkillGap", 600);
+        ReflectionTestUtils.setField(algorithm, "latencyExpansionPerSecond", 2.0);
+        ReflectionTestUtils.setField(algorithm, "maxExpandedLatencyThreshold", 150);
+        WaitReport expanding = simulateArrivals();
+
+        assertTrue(expanding.matches() >= fixed.matches());
+        assertTrue(expanding.p999() <= fixed.p999(), "Expansion should shorten the tail of the wait");
+        assertTrue(expanding.max() < fixed.max(), "Expansion should shorten the longest wait");
+        assertTrue(expanding.tightShare() >= 0.9, "Most matches should stay within the base skill gap");
+    }
+
+    /**
+     * 300 two-second ticks of one region with 50 arrivals each, on a simulated clock.
+     * Waits are those of players under the base latency threshold, who can always be
+     * matched in principle; players still queued at the end count with their wait so far.
+     */
+    private WaitReport simulateArrivals() {
+        Random random = new Random(3);
+        List<Player> queue = new ArrayList<>();
+        List<Long> waits = new ArrayList<>();
+        int matches = 0;
+        int tight = 0;
+        long now = 0;
+
+        for (int tick = 0; tick < 300; tick++) {
+            now += 2000;
+            for (int i = 0; i < 50; i++) {
+                queue.add(Player.builder()
+                    .playerId("sim-player" + tick + "-" + i)
+                    .skillRating((int) (1500 + random.nextGaussian() * 400))
+                    .latency((int) Math.round(Math.exp(Math.log(45) + random.nextGaussian() * 0.5)))
+                    .region("us-east")
+                    .queuedAt(Instant.ofEpochMilli(now - random.nextInt(2000)))
+                    .status(Player.PlayerStatus.QUEUED)
+                    .build());
+            }
+
+            Set<Player> matched = new HashSet<>();
+            for (List<Player> match : algorithm.findMatches(QueueSnapshot.of(queue, now), 2)) {
+                matches++;
+                if (Math.abs(match.get(0).getSkillRating() - match.get(1).getSkillRating()) <= 200) {
+                    tight++;
+                }
+                for (Player player : match) {
+                    if (player.getLatency() <= 100) {
+                        waits.add(now - player.getQueuedAt().toEpochMilli());
+                    }
+                    matched.add(player);
+                }
+            }
+            queue.removeAll(matched);
+        }
+
+        for (Player player : queue) {
+            if (player.getLatency() <= 100) {
+                waits.add(now - player.getQueuedAt().toEpochMilli());
+            }
+        }
+        Collections.sort(waits);
+        return new WaitReport(matches, (double) tight / matches,
+            waits.get(waits.size() / 2), waits.get((int) (waits.size() * 0.99)),
+            waits.get((int) (waits.size() * 0.999)), waits.get(waits.size() - 1));
+    }
+
+    private record WaitReport(int matches, double tightShare, long p50, long p99, long p999, long max) {
+    }
+
+    private double averageQuality(List<List<Player>> matches) {
+        return matches.stream().mapToDouble(algorithm::calculateMatchQuality).average().orElse(0);
+    }
+
+    /**
+     * The original anchor-and-scan loop from MatchmakingService
+     */
+    private List<List<Player>> linearScan(List<Player> queue, int matchSize) {
+        List<Player> queuedPlayers = new ArrayList<>(queue);
+        List<List<Player>> matches = new ArrayList<>();
+
+        while (queuedPlayers.size() >= matchSize) {
+            Player anchor = queuedPlayers.get(0);
+            List<Player> matchedPlayers = new ArrayList<>();
+            matchedPlayers.add(anchor);
+
+            for (int i = 1; i < queuedPlayers.size() && matchedPlayers.size() < matchSize; i++) {
+                Player candidate = queuedPlayers.get(i);
+                if (algorithm.arePlayersCompatible(anchor, candidate, matchedPlayers)) {
+                    matchedPlayers.add(candidate);
+                }
+            }
+
+            if (matchedPlayers.size() == matchSize) {
+                matches.add(matchedPlayers);
+                queuedPlayers.removeAll(matchedPlayers);
+            } else {
+                queuedPlayers.remove(0);
+            }
+        }
+
+        return matches;
+    }
+
+    private List<List<String>> ids(List<List<Player>> matches) {
+        return matches.stream()
+            .map(match -> match.stream().map(Player::getPlayerId).toList())
+            .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the node-local queue replica, with the Redis queue replaced by a mock
+ */
+@DisplayName("Queue Replica Tests")
+class QueueReplicaServiceTest {
+
+    private final QueueService queueService = mock(QueueService.class);
+
+    private QueueReplicaService replicaService;
+
+    @BeforeEach
+    void setUp() {
+        MatchmakingAlgorithm algorithm = new MatchmakingAlgorithm();
+        ReflectionTestUtils.setField(algorithm, "maxSkillGap", 200);
+        ReflectionTestUtils.setField(algorithm, "maxLatencyThreshold", 100);
+        replicaService = new QueueReplicaService(queueService, algorithm);
+        ReflectionTestUtils.setField(replicaService, "enabled", true);
+        ReflectionTestUtils.setField(replicaService, "syncBatchSize", 1000);
+        ReflectionTestUtils.setField(replicaService, "resyncIntervalMs", 60_000L);
+        when(queueService.readMutations(eq("us-east"), anyLong(), anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Should drop players whose queue record has expired before the next resync")
+    void testDropsExpiredPlayers() {
+        Instant now = Instant.now();
+        Player fresh = createPlayer("player1", now.minusSeconds(10));
+        Player expired = createPlayer("player2", now.minus(Duration.ofSeconds(QueueService.QUEUE_TTL + 1)));
+        when(queueService.getQueuedPlayers(MatchShard.whole("us-east"))).thenReturn(List.of(expired, fresh));
+
+        List<Player> players = replicaService.withPool(MatchShard.whole("us-east"), CandidatePool::players);
+
+        assertEquals(List.of(fresh), players);
+    }
+
+    @Test
+    @DisplayName("Should apply later mutations to the pool without re-reading the queue")
+    void testAppliesMutationsIncrementally() {
+        MatchShard shard = MatchShard.whole("us-east");
+        Instant now = Instant.now();
+        when(queueService.getQueuedPlayers(shard)).thenReturn(List.of(
+            createPlayer("player1", now), createPlayer("player2", now)));
+        replicaService.withPool(shard, CandidatePool::size);
+
+        when(queueService.readMutations(eq("us-east"), anyLong(), anyInt())).thenReturn(List.of(
+            new QueueMutation(1, QueueMutation.Operation.LEFT, "player1", null),
+            new QueueMutation(2, QueueMutation.Operation.JOINED, "player3", createPlayer("player3", now))),
+            List.of());
+        List<Player> players = replicaService.withPool(shard, CandidatePool::players);
+
+        assertEquals(List.of("player2", "player3"), players.stream().map(Player::getPlayerId).toList());
+        verify(queueService, times(1)).getQueuedPlayers(shard);
+    }
+
+    @Test
+    @DisplayName("Should only replicate the players a skill band can pair")
+    void testSkillBandReplica() {
+        MatchShard band = new MatchShard("us-east", 1, 1200, 1500, 200);
+        Instant now = Instant.now();
+        Player inBand = createPlayer("player1", now, 1300);
+        when(queueService.getQueuedPlayers(band)).thenReturn(List.of(inBand));
+        when(queueService.readMutations(eq("us-east"), anyLong(), anyInt())).thenReturn(List.of(
+            new QueueMutation(1, QueueMutation.Operation.JOINED, "player2", createPlayer("player2", now, 1650)),
+            new QueueMutation(2, QueueMutation.Operation.JOINED, "player3", createPlayer("player3", now, 1750)),
+            new QueueMutation(3, QueueMutation.Operation.JOINED, "player4", createPlayer("player4", now, 1100))),
+            List.of());
+
+        List<Player> players = replicaService.withPool(band, CandidatePool::players);
+
+        assertEquals(List.of("player1", "player2"), players.stream().map(Player::getPlayerId).toList());
+    }
+
+    private Player createPlayer(String id, Instant queuedAt) {
+        return createPlayer(id, queuedAt, 1500);
+    }
+
+    private Player createPlayer(String id, Instant queuedAt, int skillRating) {
+        return Player.builder()
+            .playerId(id)
+            .username("User" + id)
+            .skillRating(skillRating)
+            .latency(50)
+            .region("us-east")
+            .queuedAt(queuedAt)
+            .status(Player.PlayerStatus.QUEUED)
+            .build();
+    }
+}
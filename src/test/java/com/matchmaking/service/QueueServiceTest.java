@@ -1,11 +1,16 @@
 package com.matchmaking.service;
 
+import com.matchmaking.model.Match;
 import com.matchmaking.model.Player;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -13,7 +18,14 @@ import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,6 +53,9 @@ class QueueServiceTest {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private RedisLockService redisLockService;
+
     @BeforeEach
     void setUp() {
         queueService.clearQueue();
@@ -101,6 +116,257 @@ class QueueServiceTest {
         assertEquals(3, queueService.getPlayerPosition("player3"));
     }
 
+    @Test
+    @DisplayName("Should drop queue entries whose player data expired")
+    void testStaleEntriesRemoved() {
+        queueService.enqueue(createTestPlayer("player1"));
+        queueService.enqueue(createTestPlayer("player2"));
+        queueService.enqueue(createTestPlayer("player3"));
+        redisTemplate.delete(ShardKeys.player("us-east", "player2"));
+        
+        List<Player> players = queueService.getQueuedPlayers("us-east");
+        
+        assertEquals(2, players.size());
+        assertEquals("player1", players.get(0).getPlayerId());
+        assertEquals("player3", players.get(1).getPlayerId());
+        assertEquals(2, queueService.getQueueSize("us-east"));
+    }
+
+    @Test
+    @DisplayName("Should accept only one of several concurrent joins for the same player")
+    void testConcurrentDuplicateJoin() throws Exception {
+        Player player = createTestPlayer("join-race-player");
+        player.setQueuedAt(Instant.now());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> results = new ArrayList<>();
+        
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> queueService.enqueueIfAbsent(player)));
+        }
+        
+        int accepted = 0;
+        for (Future<Long> result : results) {
+            if (result.get() > 0) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+        
+        assertEquals(1, accepted);
+        assertEquals(1, queueService.getPlayerPosition("join-race-player"));
+        queueService.dequeue("join-race-player");
+    }
+
+    @Test
+    @DisplayName("Should keep a player in one region queue at a time")
+    void testRejectsJoinInSecondRegion() {
+        Player player = createTestPlayer("roaming-player");
+        Player elsewhere = createTestPlayer("roaming-player");
+        elsewhere.setRegion("eu-west");
+        
+        assertTrue(queueService.enqueueIfAbsent(player) > 0);
+        assertEquals(-1, queueService.enqueueIfAbsent(elsewhere));
+        assertFalse(queueService.isPlayerInQueue("eu-west", "roaming-player"));
+        
+        assertTrue(queueService.dequeue("roaming-player"));
+        assertTrue(queueService.enqueueIfAbsent(elsewhere) > 0);
+    }
+
+    @Test
+    @DisplayName("Should reject committed matches whose players left the queue")
+    void testCommitMatchesRejectsLostRace() {
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            Player player = createTestPlayer("commit-player" + i);
+            queueService.enqueue(player);
+            players.add(player);
+        }
+        Match first = createTestMatch("match-1", players.subList(0, 2));
+        Match second = createTestMatch("match-2", players.subList(2, 4));
+        queueService.dequeue("commit-player3");
+        
+        List<Match> rejected = queueService.commitMatches("us-east", List.of(first, second));
+        
+        assertEquals(List.of(second), rejected);
+        assertEquals("match-1", queueService.getMatch("commit-player1").getMatchId());
+        assertEquals("match-1", queueService.getMatch("commit-player2").getMatchId());
+        assertNull(queueService.getMatch("commit-player4"));
+        assertFalse(queueService.isPlayerInQueue("commit-player1"));
+        assertTrue(queueService.isPlayerInQueue("commit-player4"));
+    }
+
+    @Test
+    @DisplayName("Should reject matches with an expired player and drop the expired entry")
+    void testCommitMatchesRejectsExpiredPlayer() {
+        Player player1 = createTestPlayer("expired-player1");
+        Player player2 = createTestPlayer("expired-player2");
+        queueService.enqueue(player1);
+        queueService.enqueue(player2);
+        Match match = createTestMatch("expired-match", List.of(player1, player2));
+        redisTemplate.delete(ShardKeys.player("us-east", "expired-player2"));
+        long sequence = queueService.getMutationSequence("us-east");
+        
+        assertEquals(List.of(match), queueService.commitMatches("us-east", List.of(match)));
+        
+        assertNull(queueService.getMatch("expired-player1"));
+        assertEquals(1, queueService.getQueueSize("us-east"));
+        List<QueueMutation> mutations = queueService.readMutations("us-east", sequence, 10);
+        assertEquals(1, mutations.size());
+        assertEquals(QueueMutation.Operation.LEFT, mutations.get(0).operation());
+        assertEquals("expired-player2", mutations.get(0).playerId());
+    }
+
+    @Test
+    @DisplayName("Should reject commits from a lock holder whose lease was superseded")
+    void testCommitMatchesFenced() {
+        Player player1 = createTestPlayer("fenced-player1");
+        Player player2 = createTestPlayer("fenced-player2");
+        queueService.enqueue(player1);
+        queueService.enqueue(player2);
+        Match match = createTestMatch("fenced-match", List.of(player1, player2));
+        
+        LockLease stale = redisLockService.acquireLock("test-shard");
+        redisLockService.releaseLock(stale);
+        LockLease current = redisLockService.acquireLock("test-shard");
+        
+        assertEquals(List.of(match), queueService.commitMatches("us-east", List.of(match), stale));
+        assertTrue(queueService.isPlayerInQueue("fenced-player1"));
+        
+        assertTrue(queueService.commitMatches("us-east", List.of(match), current).isEmpty());
+        assertEquals("fenced-match", queueService.getMatch("fenced-player1").getMatchId());
+        redisLockService.releaseLock(current);
+    }
+
+    @Test
+    @DisplayName("Should log joins and leaves to the mutation stream in sequence")
+    void testMutationStream() {
+        long sequence = queueService.getMutationSequence("us-east");
+        queueService.enqueue(createTestPlayer("player1"));
+        queueService.enqueue(createTestPlayer("player2"));
+        queueService.dequeue("player1");
+        
+        List<QueueMutation> mutations = queueService.readMutations("us-east", sequence, 10);
+        
+        assertEquals(3, mutations.size());
+        assertEquals(sequence + 3, queueService.getMutationSequence("us-east"));
+        assertEquals(QueueMutation.Operation.JOINED, mutations.get(0).operation());
+        assertEquals("player1", mutations.get(0).player().getPlayerId());
+        assertEquals(QueueMutation.Operation.LEFT, mutations.get(2).operation());
+        assertEquals("player1", mutations.get(2).playerId());
+        assertEquals(List.of(sequence + 1, sequence + 2, sequence + 3),
+            mutations.stream().map(QueueMutation::sequence).toList());
+    }
+
+    @Test
+    @DisplayName("Should log cleared players as departures without rewinding the sequence")
+    void testClearQueueKeepsSequence() {
+        queueService.enqueue(createTestPlayer("player1"));
+        long sequence = queueService.getMutationSequence("us-east");
+        
+        queueService.clearQueue();
+        
+        assertEquals(sequence + 1, queueService.getMutationSequence("us-east"));
+        List<QueueMutation> mutations = queueService.readMutations("us-east", sequence, 10);
+        assertEquals(1, mutations.size());
+        assertEquals(QueueMutation.Operation.LEFT, mutations.get(0).operation());
+        assertEquals("player1", mutations.get(0).playerId());
+    }
+
+    @Test
+    @DisplayName("Should carry the committed match in its match stream entry")
+    void testMatchStreamCarriesMatch() {
+        Player player1 = createTestPlayer("stream-player1");
+        Player player2 = createTestPlayer("stream-player2");
+        queueService.enqueue(player1);
+        queueService.enqueue(player2);
+        Match match = createTestMatch("stream-match", List.of(player1, player2));
+        
+        queueService.commitMatches("us-east", List.of(match));
+        
+        List<ByteRecord> records = redisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+            connection.streamCommands().xRevRange(
+                ShardKeys.matchStream("us-east").getBytes(StandardCharsets.UTF_8), Range.unbounded(), Limit.limit().count(1)));
+        
+        assertNotNull(records);
+        byte[] payload = records.get(0).getValue().entrySet().stream()
+            .filter(field -> "match".equals(new String(field.getKey(), StandardCharsets.UTF_8)))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElseThrow();
+        Match streamed = (Match) redisTemplate.getValueSerializer().deserialize(payload);
+        assertEquals("stream-match", streamed.getMatchId());
+        assertEquals(2, streamed.getPlayers().size());
+    }
+
+    @Test
+    @DisplayName("Should return the oldest players within the skill gap from the skill index")
+    void testFindSkillCandidates() {
+        Instant now = Instant.now();
+        int[] ratings = {1500, 1900, 1450, 1620, 1550};
+        for (int i = 0; i < ratings.length; i++) {
+            Player player = createTestPlayer("skill-player" + i);
+            player.setSkillRating(ratings[i]);
+            player.setQueuedAt(now.plusMillis(i));
+            queueService.enqueue(player);
+        }
+        
+        List<Player> candidates = queueService.findSkillCandidates("us-east", 1500, 100, 10);
+        assertEquals(List.of("skill-player0", "skill-player2", "skill-player4"),
+            candidates.stream().map(Player::getPlayerId).toList());
+        
+        assertEquals(2, queueService.findSkillCandidates("us-east", 1500, 100, 2).size());
+        
+        queueService.dequeue("skill-player0");
+        queueService.commitMatches("us-east", List.of(createTestMatch("skill-match",
+            List.of(candidates.get(1), queueService.findSkillCandidates("us-east", 1620, 0, 1).get(0)))));
+        assertEquals(List.of("skill-player4"), queueService.findSkillCandidates("us-east", 1500, 200, 10).stream()
+            .map(Player::getPlayerId).toList());
+    }
+
+    @Test
+    @DisplayName("Should read a skill band and the partners within its reach from the skill index")
+    void testQueuedPlayersOfBand() {
+        Instant now = Instant.now();
+        int[] ratings = {1300, 1100, 1690, 1700, 1250};
+        for (int i = 0; i < ratings.length; i++) {
+            Player player = createTestPlayer("band-player" + i);
+            player.setSkillRating(ratings[i]);
+            player.setQueuedAt(now.plusMillis(i));
+            queueService.enqueue(player);
+        }
+        
+        List<Player> players = queueService.getQueuedPlayers(new MatchShard("us-east", 1, 1200, 1500, 200));
+        assertEquals(List.of("band-player0", "band-player2", "band-player4"),
+            players.stream().map(Player::getPlayerId).toList());
+    }
+
+    @Test
+    @DisplayName("Should backfill unindexed players and drop index entries of departed players")
+    void testSkillIndexRepair() {
+        Player player = createTestPlayer("unindexed-player");
+        queueService.enqueue(player);
+        redisTemplate.opsForZSet().remove(ShardKeys.skillIndex("us-east"), "unindexed-player");
+        redisTemplate.opsForZSet().add(ShardKeys.skillIndex("us-east"), "departed-player", 1500);
+        
+        queueService.backfillSkillIndex();
+        
+        assertEquals(List.of("unindexed-player"), queueService.findSkillCandidates("us-east", 1500, 100, 10).stream()
+            .map(Player::getPlayerId).toList());
+        assertNull(redisTemplate.opsForZSet().score(ShardKeys.skillIndex("us-east"), "departed-player"));
+    }
+
+    private Match createTestMatch(String matchId, List<Player> players) {
+        return Match.builder()
+            .matchId(matchId)
+            .players(players)
+            .averageSkillRating(1500)
+            .averageLatency(50)
+            .serverRegion("us-east")
+            .createdAt(Instant.now())
+            .status(Match.MatchStatus.READY)
+            .build();
+    }
+
     private Player createTestPlayer(String id) {
         return Player.builder()
             .playerId(id)
@@ -0,0 +1,104 @@
+package com.matchmaking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the owner-safe, fenced Redis lock, with a short lease so
+ * renewal can be observed quickly
+ */
+@SpringBootTest(properties = "matchmaking.lock.lease-ms=300")
+@Testcontainers
+@DisplayName("Redis Lock Service Integration Tests")
+class RedisLockServiceTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+        .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private RedisLockService redisLockService;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(List.of(
+            "matchmaking:lock:test-fencing", "matchmaking:lock:test-owner", "matchmaking:lock:test-watchdog"));
+    }
+
+    @Test
+    @DisplayName("Should hand out increasing fencing tokens")
+    void testFencingTokensIncrease() {
+        LockLease first = redisLockService.acquireLock("test-fencing");
+        assertNotNull(first);
+        assertNull(redisLockService.acquireLock("test-fencing"));
+        redisLockService.releaseLock(first);
+
+        LockLease second = redisLockService.acquireLock("test-fencing");
+        assertNotNull(second);
+        assertTrue(second.fencingToken() > first.fencingToken());
+        redisLockService.releaseLock(second);
+    }
+
+    @Test
+    @DisplayName("Should not release a lock that passed to another owner")
+    void testReleaseIsOwnerSafe() {
+        LockLease stale = redisLockService.acquireLock("test-owner");
+        assertNotNull(stale);
+
+        // Simulate the lease expiring and another node taking the lock
+        redisTemplate.delete("matchmaking:lock:test-owner");
+        LockLease current = redisLockService.acquireLock("test-owner");
+        assertNotNull(current);
+
+        redisLockService.releaseLock(stale);
+        assertFalse(redisLockService.renewLock(stale));
+        assertTrue(redisLockService.renewLock(current));
+        assertNull(redisLockService.acquireLock("test-owner"));
+
+        redisLockService.releaseLock(current);
+        LockLease next = redisLockService.acquireLock("test-owner");
+        assertNotNull(next);
+        redisLockService.releaseLock(next);
+    }
+
+    @Test
+    @DisplayName("Should keep the lock through a callback longer than the lease")
+    void testWatchdogRenewsLease() {
+        String result = redisLockService.executeWithLock("test-watchdog", () -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertNull(redisLockService.acquireLock("test-watchdog"));
+            return "done";
+        });
+
+        assertEquals("done", result);
+        LockLease next = redisLockService.acquireLock("test-watchdog");
+        assertNotNull(next);
+        redisLockService.releaseLock(next);
+    }
+}
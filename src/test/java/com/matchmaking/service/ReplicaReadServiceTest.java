@@ -0,0 +1,123 @@
+package com.matchmaking.service;
+
+import com.matchmaking.service.ReplicaReadService.ReadEndpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for replica read routing, with primary and replica replaced by mocks
+ */
+@DisplayName("Replica Read Routing Tests")
+class ReplicaReadServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> primary = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> replica = mock(RedisTemplate.class);
+
+    // Last heartbeat written to the primary per key, and how far the replica trails it
+    private final Map<String, Long> written = new ConcurrentHashMap<>();
+    private final AtomicLong replicaLag = new AtomicLong();
+
+    private ReplicaReadService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ValueOperations<String, Object> primaryOps = mock(ValueOperations.class);
+        ValueOperations<String, Object> replicaOps = mock(ValueOperations.class);
+        when(primary.opsForValue()).thenReturn(primaryOps);
+        when(replica.opsForValue()).thenReturn(replicaOps);
+        doAnswer(invocation -> {
+            written.put(invocation.getArgument(0), Long.parseLong(invocation.getArgument(1).toString()));
+            return null;
+        }).when(primaryOps).set(anyString(), any(), any(Duration.class));
+        when(replicaOps.get(anyString())).thenAnswer(invocation -> {
+            Long value = written.get(invocation.<String>getArgument(0));
+            return value != null ? Long.toString(value - replicaLag.get()) : null;
+        });
+
+        ShardOwnershipService shardOwnershipService = mock(ShardOwnershipService.class);
+        when(shardOwnershipService.getNodeId()).thenReturn("node-a");
+
+        service = new ReplicaReadService(primary, replica, shardOwnershipService, new MockEnvironment()
+            .withProperty("matchmaking.redis.staleness.queue-status-ms", "2000")
+            .withProperty("matchmaking.redis.staleness.queue-position-ms", "1000"));
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "heartbeatIntervalMs", 500L);
+        service.init();
+    }
+
+    @Test
+    @DisplayName("Should read from the primary until replica lag has been measured")
+    void testPrimaryBeforeMeasurement() {
+        assertSame(primary, service.templateFor(ReadEndpoint.QUEUE_STATUS));
+
+        service.heartbeat();
+        assertSame(primary, service.templateFor(ReadEndpoint.QUEUE_STATUS));
+    }
+
+    @Test
+    @DisplayName("Should read from replicas that are caught up")
+    void testReplicaWhenCaughtUp() {
+        service.heartbeat();
+        service.heartbeat();
+
+        assertEquals(0, service.getReplicaLagMs());
+        for (ReadEndpoint endpoint : ReadEndpoint.values()) {
+            assertSame(replica, service.templateFor(endpoint), endpoint + " should read from the replica");
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply each endpoint's staleness budget")
+    void testStalenessBudgets() {
+        replicaLag.set(1500);
+        service.heartbeat();
+        service.heartbeat();
+
+        assertSame(replica, service.templateFor(ReadEndpoint.QUEUE_STATUS));
+        assertSame(primary, service.templateFor(ReadEndpoint.QUEUE_POSITION));
+        assertSame(primary, service.templateFor(ReadEndpoint.MATCH_RESULT));
+    }
+
+    @Test
+    @DisplayName("Should measure lag from this node's own heartbeat only")
+    void testIgnoresOtherNodesHeartbeats() {
+        replicaLag.set(1500);
+        service.heartbeat();
+        // Another node, or a node with a clock running ahead, has just written its heartbeat
+        written.put("matchmaking:replica-heartbeat:node-b", System.currentTimeMillis() + 60_000);
+        service.heartbeat();
+
+        assertEquals(1500, service.getReplicaLagMs());
+        assertSame(primary, service.templateFor(ReadEndpoint.QUEUE_POSITION));
+    }
+
+    @Test
+    @DisplayName("Should read from the primary when routing is disabled")
+    void testDisabled() {
+        service.heartbeat();
+        service.heartbeat();
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        assertSame(primary, service.templateFor(ReadEndpoint.LEADERBOARD));
+    }
+}
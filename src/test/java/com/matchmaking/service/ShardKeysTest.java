@@ -0,0 +1,53 @@
+package com.matchmaking.service;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardKeys
+ */
+@DisplayName("Shard Key Layout Tests")
+class ShardKeysTest {
+
+    @Test
+    @DisplayName("Should put every key of a shard in the same cluster slot")
+    void testShardKeysShareSlot() {
+        String region = "us-east";
+        List<String> keys = List.of(
+            ShardKeys.queue(region),
+            ShardKeys.skillIndex(region),
+            ShardKeys.mutationSequence(region),
+            ShardKeys.mutationStream(region),
+            ShardKeys.player(region, "player1"),
+            ShardKeys.match(region, "player2"),
+            ShardKeys.playerStream(region, "player3"),
+            ShardKeys.matchStream(region),
+            "matchmaking:lock:" + ShardKeys.shardLock(MatchShard.whole(region)),
+            "matchmaking:lock-fence:" + ShardKeys.shardLock(MatchShard.whole(region)),
+            "matchmaking:lock-fence:" + ShardKeys.shardLock(new MatchShard(region, 1, 1200, 1500, 200)));
+
+        int slot = SlotHash.getSlot(keys.get(0));
+        keys.forEach(key -> assertEquals(slot, SlotHash.getSlot(key), key + " is in another slot"));
+    }
+
+    @Test
+    @DisplayName("Should keep region shards apart")
+    void testRegionsUseOwnTags() {
+        assertNotEquals(ShardKeys.queue("us-east"), ShardKeys.queue("eu-west"));
+        assertEquals(SlotHash.getSlot("us-east"), SlotHash.getSlot(ShardKeys.queue("us-east")));
+    }
+
+    @Test
+    @DisplayName("Should give every skill band its own tick lock")
+    void testBandLocks() {
+        assertEquals("matchmaking-process:{us-east}", ShardKeys.shardLock(MatchShard.whole("us-east")));
+        assertNotEquals(
+            ShardKeys.shardLock(new MatchShard("us-east", 0, Integer.MIN_VALUE, 1200, 200)),
+            ShardKeys.shardLock(new MatchShard("us-east", 1, 1200, Integer.MAX_VALUE, 0)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardLayout
+ */
+@DisplayName("Shard Layout Tests")
+class ShardLayoutTest {
+
+    @Test
+    @DisplayName("Should keep one shard per region without band edges")
+    void testWholeRegions() {
+        ShardLayout layout = new ShardLayout(List.of("us-east", "eu-west"), List.of(), 200);
+
+        assertEquals(List.of("us-east", "eu-west"), layout.getShards().stream().map(MatchShard::id).toList());
+        assertEquals(MatchShard.whole("us-east"), layout.shardFor("us-east", 1500));
+        assertTrue(layout.shardFor("us-east", 1500).owns(player(-5)));
+    }
+
+    @Test
+    @DisplayName("Should split regions into skill bands at the edges")
+    void testSkillBands() {
+        ShardLayout layout = new ShardLayout(List.of("us-east", "eu-west"), List.of(1200, 1800), 200);
+
+        assertEquals(List.of("us-east/0", "us-east/1", "us-east/2", "eu-west/0", "eu-west/1", "eu-west/2"),
+            layout.getShards().stream().map(MatchShard::id).toList());
+        assertEquals("us-east/0", layout.shardFor("us-east", 1199).id());
+        assertEquals("us-east/1", layout.shardFor("us-east", 1200).id());
+        assertEquals("us-east/2", layout.shardFor("us-east", 2400).id());
+    }
+
+    @Test
+    @DisplayName("Should let a band reach partners just above its edge")
+    void testBandReach() {
+        MatchShard band = new ShardLayout(List.of("us-east"), List.of(1200, 1800), 200).shardFor("us-east", 1500);
+
+        assertTrue(band.owns(player(1200)));
+        assertFalse(band.owns(player(1800)));
+        assertTrue(band.reaches(player(1999)));
+        assertFalse(band.reaches(player(2000)));
+        assertFalse(band.reaches(player(1199)));
+    }
+
+    @Test
+    @DisplayName("Should reject band edges that are not increasing")
+    void testInvalidEdges() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ShardLayout(List.of("us-east"), List.of(1500, 1200), 200));
+    }
+
+    private static Player player(int skillRating) {
+        return Player.builder().playerId("player-" + skillRating).skillRating(skillRating).region("us-east").build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.matchmaking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardOwnershipService
+ */
+@DisplayName("Shard Ownership Tests")
+class ShardOwnershipServiceTest {
+
+    private static final List<String> NODES = List.of("pod-a", "pod-b", "pod-c");
+
+    // Four regions in five skill bands each
+    private static final ShardLayout BANDED = new ShardLayout(
+        List.of("us-east", "us-west", "eu-west", "ap-southeast"), List.of(1200, 1400, 1600, 1800), 200);
+
+    private ShardOwnershipService service;
+
+    @BeforeEach
+    void setUp() {
+        service = replica("pod-a", new ShardLayout(List.of("us-east", "eu-west"), List.of(), 200));
+    }
+
+    private static ShardOwnershipService replica(String nodeId, ShardLayout layout) {
+        ShardOwnershipService replica = new ShardOwnershipService(null, layout);
+        ReflectionTestUtils.setField(replica, "enabled", true);
+        ReflectionTestUtils.setField(replica, "configuredNodeId", nodeId);
+        replica.init();
+        return replica;
+    }
+
+    @Test
+    @DisplayName("Should own every shard until other nodes are known")
+    void testOwnsEverythingWithoutHeartbeat() {
+        assertTrue(service.ownsShard("us-east"));
+        assertTrue(service.ownsShard("eu-west"));
+    }
+
+    @Test
+    @DisplayName("Should give each shard to exactly one live node")
+    void testSingleOwnerPerShard() {
+        for (int i = 0; i < 50; i++) {
+            String shard = "region-" + i;
+            int owners = 0;
+            for (String node : NODES) {
+                ShardOwnershipService replica = replica(node, BANDED);
+                ReflectionTestUtils.setField(replica, "liveNodes", NODES);
+                if (replica.ownsShard(shard)) {
+                    owners++;
+                }
+            }
+            assertEquals(1, owners, "Shard " + shard + " should have one owner");
+        }
+    }
+
+    @Test
+    @DisplayName("Should give every replica an equal share of the layout's shards")
+    void testBalancedAssignment() {
+        List<String> shards = BANDED.getShards().stream().map(MatchShard::id).toList();
+        assertEquals(20, shards.size());
+
+        for (int replicas = 1; replicas <= 25; replicas++) {
+            List<String> nodes = IntStream.range(0, replicas).mapToObj(i -> "pod-" + i).sorted().toList();
+            Map<String, String> owners = ShardOwnershipService.assign(shards, nodes);
+            assertEquals(shards.size(), owners.size());
+
+            Map<String, Integer> perNode = new HashMap<>();
+            owners.values().forEach(owner -> perNode.merge(owner, 1, Integer::sum));
+            int quota = shards.size() / replicas;
+            for (String node : nodes) {
+                int owned = perNode.getOrDefault(node, 0);
+                assertTrue(owned == quota || owned == quota + 1,
+                    node + " owns " + owned + " of " + shards.size() + " shards with " + replicas + " replicas");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should agree on one owner per layout shard across replicas")
+    void testReplicasAgreeOnAssignment() {
+        List<String> nodes = IntStream.range(0, 10).mapToObj(i -> "pod-" + i).sorted().toList();
+        Map<String, Integer> perNode = new HashMap<>();
+
+        for (MatchShard shard : BANDED.getShards()) {
+            int owners = 0;
+            for (String node : nodes) {
+                ShardOwnershipService replica = replica(node, BANDED);
+                ReflectionTestUtils.setField(replica, "liveNodes", nodes);
+                if (replica.ownsShard(shard.id())) {
+                    owners++;
+                    perNode.merge(node, 1, Integer::sum);
+                }
+            }
+            assertEquals(1, owners, "Shard " + shard.id() + " should have one owner");
+        }
+        nodes.forEach(node -> assertEquals(2, perNode.get(node), node + " should tick two shards"));
+    }
+
+    @Test
+    @DisplayName("Should only move shards of a node that leaves")
+    void testRebalanceMovesOnlyLostShards() {
+        Map<String, String> before = new HashMap<>();
+        Map<String, Integer> perNode = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            String shard = "region-" + i;
+            String owner = ShardOwnershipService.ownerOf(shard, NODES);
+            before.put(shard, owner);
+            perNode.merge(owner, 1, Integer::sum);
+        }
+
+        // Every node gets a reasonable share
+        NODES.forEach(node -> assertTrue(perNode.getOrDefault(node, 0) > 50, node + " owns too few shards"));
+
+        List<String> remaining = List.of("pod-a", "pod-c");
+        before.forEach((shard, owner) -> {
+            String after = ShardOwnershipService.ownerOf(shard, remaining);
+            if (!owner.equals("pod-b")) {
+                assertEquals(owner, after, "Shard " + shard + " should stay with its owner");
+            } else {
+                assertTrue(remaining.contains(after));
+            }
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.matchmaking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for striped counters, with Redis replaced by an in-memory map
+ */
+@DisplayName("Striped Counter Tests")
+class StripedCountersTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, Object> valueOps = mock(ValueOperations.class);
+
+    private final Map<String, Long> store = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.increment(anyString(), anyLong())).thenAnswer(invocation ->
+            store.merge(invocation.getArgument(0), invocation.getArgument(1), Long::sum));
+        when(valueOps.multiGet(anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            return keys.stream().map(key -> (Object) store.get(key)).toList();
+        });
+        when(valueOps.getAndDelete(anyString())).thenAnswer(invocation -> store.remove(invocation.getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("Should sum increments from many threads across stripes")
+    void testSumAcrossStripes() throws InterruptedException {
+        StripedCounters counters = new StripedCounters(redisTemplate, 8, 0);
+
+        Thread[] threads = new Thread[16];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < 100; n++) {
+                    counters.increment("matches", 1);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1600, counters.get("matches"));
+        assertTrue(store.size() > 1, "Writes should spread over several stripes");
+        assertTrue(store.size() <= 8);
+    }
+
+    @Test
+    @DisplayName("Should fold a legacy counter key into the stripes exactly once")
+    void testFoldLegacyKey() {
+        StripedCounters counters = new StripedCounters(redisTemplate, 4, 0);
+        store.put("matchmaking:stats:total_matches", 42L);
+        counters.increment("matches", 3);
+
+        assertEquals(42, counters.fold("matches", "matchmaking:stats:total_matches"));
+        assertEquals(0, counters.fold("matches", "matchmaking:stats:total_matches"));
+
+        assertFalse(store.containsKey("matchmaking:stats:total_matches"));
+        assertEquals(45, counters.get("matches"));
+    }
+
+    @Test
+    @DisplayName("Should serve reads from the local cache until it expires")
+    void testCachedReads() {
+        StripedCounters counters = new StripedCounters(redisTemplate, 4, 60_000);
+        counters.increment("matches", 5);
+
+        assertEquals(5, counters.get("matches"));
+        counters.increment("matches", 5);
+        assertEquals(5, counters.get("matches"));
+
+        verify(valueOps, times(1)).multiGet(anyList());
+    }
+}
@@ -0,0 +1,113 @@
+package com.matchmaking.service;
+
+import com.matchmaking.model.Match;
+import com.matchmaking.model.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for splitting lobbies into balanced teams
+ */
+@DisplayName("Team Balancer Tests")
+class TeamBalancerTest {
+
+    private final TeamBalancer balancer = new TeamBalancer(true, 12, 1000);
+
+    @Test
+    @DisplayName("Should find the best split of small lobbies")
+    void testExactSplitIsOptimal() {
+        Random random = new Random(7);
+        for (int size = 2; size <= 12; size += 2) {
+            for (int round = 0; round < 20; round++) {
+                int[] skills = randomSkills(random, size);
+
+                boolean[] split = balancer.split(skills);
+
+                assertEquals(size / 2, countFirst(split));
+                assertEquals(bruteForceDifference(skills), difference(skills, split), "Lobby " + size);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should split large lobbies into equal teams close to the best split")
+    void testHeuristicSplit() {
+        Random random = new Random(11);
+        int[] skills = randomSkills(random, 20);
+
+        boolean[] split = balancer.split(skills);
+
+        assertEquals(10, countFirst(split));
+        // A greedy split alone is off by at most the strongest player's rating;
+        // the swap pass should close nearly all of that on a spread-out lobby
+        assertTrue(difference(skills, split) <= 50, "Difference " + difference(skills, split));
+    }
+
+    @Test
+    @DisplayName("Should build teams for N-vs-N lobbies only")
+    void testBalanceTeams() {
+        List<Player> lobby = new ArrayList<>();
+        int[] skills = {1800, 1500, 1450, 1250};
+        for (int i = 0; i < skills.length; i++) {
+            lobby.add(Player.builder().playerId("player" + i).skillRating(skills[i]).build());
+        }
+
+        List<Match.Team> teams = balancer.balance(lobby);
+
+        assertEquals(2, teams.size());
+        assertEquals(List.of("player0", "player3"), teams.get(0).getPlayerIds());
+        assertEquals(List.of("player1", "player2"), teams.get(1).getPlayerIds());
+        assertEquals(1525, teams.get(0).getAverageSkillRating());
+        assertEquals(1475, teams.get(1).getAverageSkillRating());
+
+        assertNull(balancer.balance(lobby.subList(0, 2)));
+        assertNull(balancer.balance(lobby.subList(0, 3)));
+    }
+
+    private int[] randomSkills(Random random, int size) {
+        int[] skills = new int[size];
+        for (int i = 0; i < size; i++) {
+            skills[i] = 1200 + random.nextInt(600);
+        }
+        return skills;
+    }
+
+    private int countFirst(boolean[] split) {
+        int count = 0;
+        for (boolean first : split) {
+            if (first) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long difference(int[] skills, boolean[] split) {
+        long difference = 0;
+        for (int i = 0; i < skills.length; i++) {
+            difference += split[i] ? skills[i] : -skills[i];
+        }
+        return Math.abs(difference);
+    }
+
+    private long bruteForceDifference(int[] skills) {
+        long best = Long.MAX_VALUE;
+        for (int mask = 0; mask < 1 << skills.length; mask++) {
+            if (Integer.bitCount(mask) != skills.length / 2) {
+                continue;
+            }
+            long difference = 0;
+            for (int i = 0; i < skills.length; i++) {
+                difference += (mask & (1 << i)) != 0 ? skills[i] : -skills[i];
+            }
+            best = Math.min(best, Math.abs(difference));
+        }
+        return best;
+    }
+}